@@ -2,7 +2,7 @@ plugins {
     alias(libs.plugins.android.application)
     alias(libs.plugins.kotlin.android)
     alias(libs.plugins.kotlin.compose)
-    alias(libs.plugins.devtools.ksp) apply false
+    alias(libs.plugins.devtools.ksp)
     //id 'dagger.hilt.android.plugin'
 
 }
@@ -39,6 +39,7 @@ android {
     }
     buildFeatures {
         compose = true
+        buildConfig = true
     }
 }
 
@@ -63,11 +64,20 @@ dependencies {
 
     implementation(libs.retrofit)
     implementation(libs.converter.gson)
+    implementation(libs.okhttp)
 
     implementation(libs.kotlinx.coroutines.android)
     implementation(libs.runtime.livedata)
 
     implementation(libs.lifecycle.viewmodel.compose)
 
+    implementation(libs.room.runtime)
+    implementation(libs.room.ktx)
+    ksp(libs.room.compiler)
+    implementation(libs.room.paging)
+
+    implementation(libs.paging.runtime)
+    implementation(libs.paging.compose)
+
 
 }
\ No newline at end of file
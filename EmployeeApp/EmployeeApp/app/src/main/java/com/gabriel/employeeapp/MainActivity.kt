@@ -6,7 +6,6 @@ import androidx.activity.compose.setContent
 import androidx.activity.enableEdgeToEdge
 import androidx.compose.foundation.layout.*
 import androidx.compose.foundation.lazy.LazyColumn
-import androidx.compose.foundation.lazy.items
 import androidx.compose.foundation.shape.CircleShape
 import androidx.compose.foundation.clickable
 import androidx.compose.foundation.interaction.MutableInteractionSource
@@ -39,6 +38,9 @@ import androidx.compose.ui.res.painterResource
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.lifecycle.viewmodel.compose.viewModel
+import androidx.paging.LoadState
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.paging.compose.itemKey
 import android.app.Application
 import kotlinx.coroutines.launch
 
@@ -74,21 +76,19 @@ fun StudentApp() {
     var showDetailsDialog by remember { mutableStateOf(false) }
     var selectedStudent by remember { mutableStateOf<Student?>(null) }
     
-    val students by viewModel.students.collectAsState()
+    val students = viewModel.students.collectAsLazyPagingItems()
     val isLoading by viewModel.isLoading.collectAsState()
     val errorMessage by viewModel.errorMessage.collectAsState()
+    val refreshState = students.loadState.refresh
+    val loadError = errorMessage ?: (refreshState as? LoadState.Error)?.error?.message
     
-    val filteredStudents = students.filter { student ->
-        searchQuery.isEmpty() || 
-        student.firstName.contains(searchQuery, ignoreCase = true) ||
-        student.lastName.contains(searchQuery, ignoreCase = true) ||
-        student.email.contains(searchQuery, ignoreCase = true) ||
-        student.department.contains(searchQuery, ignoreCase = true) ||
-        student.studentNumber.contains(searchQuery, ignoreCase = true)
-    }
-    
-    LaunchedEffect(Unit) {
-        viewModel.fetchStudents()
+    // With students already cached a failed refresh is only reported; the list stays usable.
+    LaunchedEffect(errorMessage) {
+        val message = errorMessage
+        if (message != null && students.itemCount > 0) {
+            snackbarHostState.showSnackbar(message)
+            viewModel.clearError()
+        }
     }
     
     Scaffold(
@@ -120,7 +120,10 @@ fun StudentApp() {
             
             OutlinedTextField(
                 value = searchQuery,
-                onValueChange = { searchQuery = it },
+                onValueChange = {
+                    searchQuery = it
+                    viewModel.searchStudents(it)
+                },
                 modifier = Modifier.fillMaxWidth(),
                 placeholder = { Text("Search students...") },
                 leadingIcon = { Icon(Icons.Default.Search, contentDescription = null) },
@@ -129,7 +132,7 @@ fun StudentApp() {
             
             Spacer(modifier = Modifier.height(8.dp))
             
-            if (isLoading) {
+            if ((isLoading || refreshState is LoadState.Loading) && students.itemCount == 0) {
                 Box(
                     modifier = Modifier.fillMaxSize(),
                     contentAlignment = Alignment.Center
@@ -143,7 +146,7 @@ fun StudentApp() {
                         )
                     }
                 }
-            } else if (errorMessage != null) {
+            } else if (loadError != null && students.itemCount == 0) {
                 Box(
                     modifier = Modifier.fillMaxSize(),
                     contentAlignment = Alignment.Center
@@ -152,17 +155,20 @@ fun StudentApp() {
                         horizontalAlignment = Alignment.CenterHorizontally
                     ) {
                         Text(
-                            text = errorMessage ?: "Unknown error",
+                            text = loadError,
                             style = MaterialTheme.typography.bodyLarge,
                             color = MaterialTheme.colorScheme.error
                         )
                         Spacer(modifier = Modifier.height(16.dp))
-                        Button(onClick = { viewModel.fetchStudents() }) {
+                        Button(onClick = {
+                            students.retry()
+                            viewModel.fetchStudents()
+                        }) {
                             Text("Retry")
                         }
                     }
                 }
-            } else if (filteredStudents.isEmpty()) {
+            } else if (students.itemCount == 0) {
                 Box(
                     modifier = Modifier.fillMaxSize(),
                     contentAlignment = Alignment.Center
@@ -177,7 +183,11 @@ fun StudentApp() {
                 LazyColumn(
                     verticalArrangement = Arrangement.spacedBy(8.dp)
                 ) {
-                    items(filteredStudents) { student ->
+                    items(
+                        count = students.itemCount,
+                        key = students.itemKey { it.id ?: 0L }
+                    ) { index ->
+                        val student = students[index] ?: return@items
                         StudentCard(
                             student = student,
                             isSelected = selectedStudent?.id == student.id,
@@ -1,7 +1,12 @@
 package com.gabriel.employeeapp
 
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.flatMapLatest
+import androidx.paging.PagingData
+import androidx.paging.cachedIn
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import kotlinx.coroutines.launch
@@ -14,8 +19,6 @@ class StudentViewModel(
 ) : ViewModel() {
     
     private val repository = StudentRepositoryImpl(application)
-    private val _students = MutableStateFlow<List<Student>>(emptyList())
-    val students: StateFlow<List<Student>> get() = _students
     
     private val _isLoading = MutableStateFlow(false)
     val isLoading: StateFlow<Boolean> get() = _isLoading
@@ -26,6 +29,12 @@ class StudentViewModel(
     private val _searchQuery = MutableStateFlow("")
     val searchQuery: StateFlow<String> get() = _searchQuery
 
+    // Cached students page in from Room straight away; fetchStudents revalidates them in place.
+    @OptIn(ExperimentalCoroutinesApi::class)
+    val students: Flow<PagingData<Student>> = _searchQuery
+        .flatMapLatest { query -> repository.pagedStudents(query) }
+        .cachedIn(viewModelScope)
+
     init {
         fetchStudents()
     }
@@ -35,10 +44,8 @@ class StudentViewModel(
             _isLoading.value = true
             _errorMessage.value = null
             try {
-                val result = repository.getAllStudents()
-                result.onSuccess { newStudents ->
-                    _students.value = newStudents
-                }.onFailure { error ->
+                val result = repository.refreshStudents()
+                result.onFailure { error ->
                     _errorMessage.value = error.message
                 }
             } catch (e: Exception) {
@@ -55,9 +62,7 @@ class StudentViewModel(
             _errorMessage.value = null
             try {
                 val result = repository.addStudent(student)
-                result.onSuccess { newStudent ->
-                    _students.value = _students.value + newStudent
-                }.onFailure { error ->
+                result.onFailure { error ->
                     _errorMessage.value = error.message
                 }
             } catch (e: Exception) {
@@ -74,14 +79,7 @@ class StudentViewModel(
             _errorMessage.value = null
             try {
                 val result = repository.updateStudent(student)
-                result.onSuccess { updatedStudent ->
-                    val currentStudents = _students.value.toMutableList()
-                    val index = currentStudents.indexOfFirst { it.id == updatedStudent.id }
-                    if (index >= 0) {
-                        currentStudents[index] = updatedStudent
-                        _students.value = currentStudents
-                    }
-                }.onFailure { error ->
+                result.onFailure { error ->
                     _errorMessage.value = error.message
                 }
             } catch (e: Exception) {
@@ -98,9 +96,7 @@ class StudentViewModel(
             _errorMessage.value = null
             try {
                 val result = repository.deleteStudent(studentId)
-                result.onSuccess {
-                    _students.value = _students.value.filter { it.id != studentId }
-                }.onFailure { error ->
+                result.onFailure { error ->
                     _errorMessage.value = error.message
                 }
             } catch (e: Exception) {
@@ -0,0 +1,110 @@
+package com.gabriel.employeeapp.data.local
+
+import androidx.paging.PagingSource
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Upsert
+
+@Dao
+abstract class StudentDao {
+    // Same order as the server's cursor pages, so rows appended by the mediator land at the end.
+    @Query("SELECT * FROM students ORDER BY id")
+    abstract fun pagingSource(): PagingSource<Int, StudentEntity>
+
+    // Offline fallback of the server search, over the students cached so far.
+    @Query(
+        """SELECT * FROM students
+           WHERE firstName LIKE '%' || :query || '%' OR lastName LIKE '%' || :query || '%'
+              OR email LIKE '%' || :query || '%' OR department LIKE '%' || :query || '%'
+              OR studentNumber LIKE '%' || :query || '%'
+           ORDER BY id LIMIT :limit"""
+    )
+    abstract suspend fun search(query: String, limit: Int): List<StudentEntity>
+
+    @Query("SELECT COUNT(*) FROM students")
+    abstract suspend fun count(): Int
+
+    @Query("SELECT MAX(id) FROM students")
+    abstract suspend fun maxId(): Long?
+
+    @Upsert
+    abstract suspend fun upsert(student: StudentEntity)
+
+    @Upsert
+    abstract suspend fun upsertAll(students: List<StudentEntity>)
+
+    @Query("DELETE FROM students WHERE id = :id")
+    abstract suspend fun deleteById(id: Long)
+
+    @Query("DELETE FROM students WHERE id IN (:ids)")
+    abstract suspend fun deleteByIds(ids: List<Long>)
+
+    @Query("DELETE FROM students")
+    abstract suspend fun deleteAll()
+
+    @Query("SELECT value FROM sync_state WHERE name = :name")
+    abstract suspend fun getState(name: String): String?
+
+    @Upsert
+    abstract suspend fun upsertState(state: SyncStateEntity)
+
+    @Query("DELETE FROM sync_state WHERE name = :name")
+    abstract suspend fun clearState(name: String)
+
+    suspend fun getSyncToken(): String? = getState(SYNC_TOKEN)
+
+    // Set while the list has only been paged part of the way; absent once it is complete.
+    suspend fun getPageCursor(): String? = getState(PAGE_CURSOR)
+
+    // Applies one page of a delta sync. With reload the cached students are dropped first, so the
+    // page replaces rather than merges; a null token means the backend cannot sync incrementally.
+    // While the list is only partly paged, students past the last cached one are left to the
+    // mediator, which reaches them in order.
+    @Transaction
+    open suspend fun applySync(students: List<StudentEntity>, deleted: List<Long>, token: String?, reload: Boolean) {
+        if (reload) {
+            deleteAll()
+            clearState(PAGE_CURSOR)
+        }
+        if (deleted.isNotEmpty()) {
+            deleteByIds(deleted)
+        }
+        val frontier = if (getPageCursor() != null) maxId() else null
+        upsertAll(if (frontier == null) students else students.filter { it.id <= frontier })
+        setState(SYNC_TOKEN, token)
+    }
+
+    // Applies one cursor page loaded by the mediator. The first page starts the cache over and
+    // brings the delta token that later revalidation continues from.
+    @Transaction
+    open suspend fun applyPage(students: List<StudentEntity>, nextCursor: String?, token: String?, first: Boolean) {
+        if (first) {
+            deleteAll()
+            setState(SYNC_TOKEN, token)
+        }
+        upsertAll(students)
+        setState(PAGE_CURSOR, nextCursor)
+    }
+
+    // Drops the students and both tokens; the mediator then loads the list again from its first page.
+    @Transaction
+    open suspend fun clear() {
+        deleteAll()
+        clearState(SYNC_TOKEN)
+        clearState(PAGE_CURSOR)
+    }
+
+    private suspend fun setState(name: String, value: String?) {
+        if (value != null) {
+            upsertState(SyncStateEntity(name, value))
+        } else {
+            clearState(name)
+        }
+    }
+
+    companion object {
+        const val SYNC_TOKEN = "student_delta_token"
+        const val PAGE_CURSOR = "student_page_cursor"
+    }
+}
@@ -0,0 +1,34 @@
+package com.gabriel.employeeapp.data.local
+
+import android.content.Context
+import androidx.room.Database
+import androidx.room.Room
+import androidx.room.RoomDatabase
+
+@Database(
+    entities = [StudentEntity::class, SyncStateEntity::class],
+    version = 2,
+    exportSchema = false
+)
+abstract class StudentDatabase : RoomDatabase() {
+    abstract fun studentDao(): StudentDao
+
+    companion object {
+        @Volatile
+        private var INSTANCE: StudentDatabase? = null
+
+        fun getInstance(context: Context): StudentDatabase {
+            return INSTANCE ?: synchronized(this) {
+                INSTANCE ?: Room.databaseBuilder(
+                    context.applicationContext,
+                    StudentDatabase::class.java,
+                    "students.db"
+                )
+                    // Only a cache of the server, so a schema change can simply start it over.
+                    .fallbackToDestructiveMigration()
+                    .build()
+                    .also { INSTANCE = it }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.gabriel.employeeapp.data.local
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+import com.gabriel.employeeapp.data.model.Student
+
+@Entity(tableName = "students")
+data class StudentEntity(
+    @PrimaryKey val id: Long,
+    val firstName: String,
+    val lastName: String,
+    val email: String,
+    val department: String,
+    val studentNumber: String,
+    val createdAt: String? = null,
+    val updatedAt: String? = null,
+    val imageUrl: String? = null,
+    val version: Int = 0
+) {
+    fun toStudent() = Student(
+        id = id,
+        firstName = firstName,
+        lastName = lastName,
+        email = email,
+        department = department,
+        studentNumber = studentNumber,
+        createdAt = createdAt,
+        updatedAt = updatedAt,
+        imageUrl = imageUrl,
+        version = version
+    )
+}
+
+// Students the server has not assigned an id yet are not cached.
+fun Student.toEntity(): StudentEntity? = id?.let {
+    StudentEntity(
+        id = it,
+        firstName = firstName,
+        lastName = lastName,
+        email = email,
+        department = department,
+        studentNumber = studentNumber,
+        createdAt = createdAt,
+        updatedAt = updatedAt,
+        imageUrl = imageUrl,
+        version = version
+    )
+}
@@ -0,0 +1,12 @@
+package com.gabriel.employeeapp.data.local
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+// Small key/value table kept next to the students so a sync token is written in the same
+// transaction as the rows it describes.
+@Entity(tableName = "sync_state")
+data class SyncStateEntity(
+    @PrimaryKey val name: String,
+    val value: String
+)
@@ -9,5 +9,7 @@ data class Student(
     val studentNumber: String,
     val createdAt: String? = null,
     val updatedAt: String? = null,
-    val imageUrl: String? = null
+    val imageUrl: String? = null,
+    // Sent back on PUT so the server can refuse an edit of an outdated copy with 409.
+    val version: Int = 0
 )
\ No newline at end of file
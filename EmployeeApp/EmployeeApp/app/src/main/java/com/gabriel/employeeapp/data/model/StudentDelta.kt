@@ -0,0 +1,10 @@
+package com.gabriel.employeeapp.data.model
+
+// Response of GET /api/student/delta: students written and ids deleted since the token that was
+// sent, plus the token for the next call. more is set when the server truncated the page.
+data class StudentDelta(
+    val students: List<Student> = emptyList(),
+    val deleted: List<Long> = emptyList(),
+    val token: String,
+    val more: Boolean = false
+)
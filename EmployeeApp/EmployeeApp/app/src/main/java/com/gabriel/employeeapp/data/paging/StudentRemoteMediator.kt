@@ -0,0 +1,56 @@
+package com.gabriel.employeeapp.data.paging
+
+import androidx.paging.ExperimentalPagingApi
+import androidx.paging.LoadType
+import androidx.paging.PagingState
+import androidx.paging.RemoteMediator
+import com.gabriel.employeeapp.data.local.StudentDao
+import com.gabriel.employeeapp.data.local.StudentEntity
+import com.gabriel.employeeapp.data.local.toEntity
+import com.gabriel.employeeapp.data.remote.StudentApi
+
+// Fills Room from GET /api/student one cursor page at a time as the list is scrolled, so the first
+// screen needs one page and the roster is never held in memory; the UI pages from Room.
+@OptIn(ExperimentalPagingApi::class)
+class StudentRemoteMediator(
+    private val api: StudentApi,
+    private val dao: StudentDao
+) : RemoteMediator<Int, StudentEntity>() {
+
+    // A cached list is shown as is; the view model revalidates it through the delta endpoint.
+    override suspend fun initialize(): InitializeAction {
+        return if (dao.count() > 0) InitializeAction.SKIP_INITIAL_REFRESH else InitializeAction.LAUNCH_INITIAL_REFRESH
+    }
+
+    override suspend fun load(loadType: LoadType, state: PagingState<Int, StudentEntity>): MediatorResult {
+        val after = when (loadType) {
+            LoadType.REFRESH -> null
+            LoadType.PREPEND -> return MediatorResult.Success(endOfPaginationReached = true)
+            // An empty cache without a cursor was cleared (a 410 on revalidation) and starts over.
+            LoadType.APPEND -> dao.getPageCursor()
+                ?: if (dao.count() == 0) null else return MediatorResult.Success(endOfPaginationReached = true)
+        }
+        return try {
+            val response = api.getStudentPage(after, state.config.pageSize)
+            if (!response.isSuccessful) {
+                return MediatorResult.Error(Exception("Failed to fetch students: ${response.code()}"))
+            }
+            val students = response.body() ?: emptyList()
+            val nextCursor = response.headers()[NEXT_CURSOR_HEADER]
+            dao.applyPage(
+                students.mapNotNull { it.toEntity() },
+                nextCursor,
+                response.headers()[DELTA_TOKEN_HEADER],
+                after == null
+            )
+            MediatorResult.Success(endOfPaginationReached = nextCursor == null)
+        } catch (e: Exception) {
+            MediatorResult.Error(e)
+        }
+    }
+
+    companion object {
+        private const val NEXT_CURSOR_HEADER = "X-Next-Cursor"
+        private const val DELTA_TOKEN_HEADER = "X-Delta-Token"
+    }
+}
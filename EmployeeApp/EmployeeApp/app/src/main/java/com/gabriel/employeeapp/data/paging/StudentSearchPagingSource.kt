@@ -0,0 +1,43 @@
+package com.gabriel.employeeapp.data.paging
+
+import androidx.paging.PagingSource
+import androidx.paging.PagingState
+import com.gabriel.employeeapp.data.local.StudentDao
+import com.gabriel.employeeapp.data.model.Student
+import com.gabriel.employeeapp.data.remote.StudentApi
+import java.io.IOException
+
+// Results of GET /api/student/search, which returns the best matches in one response rather than
+// pages. Offline, or against a backend without the endpoint, it searches the Room cache instead.
+class StudentSearchPagingSource(
+    private val api: StudentApi,
+    private val dao: StudentDao,
+    private val query: String
+) : PagingSource<Int, Student>() {
+
+    override suspend fun load(params: LoadParams<Int>): LoadResult<Int, Student> {
+        return try {
+            val response = api.searchStudents(query, SEARCH_LIMIT)
+            when {
+                response.isSuccessful -> LoadResult.Page(response.body() ?: emptyList(), prevKey = null, nextKey = null)
+                response.code() == 404 -> cached()
+                else -> LoadResult.Error(Exception("Failed to search students: ${response.code()}"))
+            }
+        } catch (e: IOException) {
+            cached()
+        } catch (e: Exception) {
+            LoadResult.Error(e)
+        }
+    }
+
+    override fun getRefreshKey(state: PagingState<Int, Student>): Int? = null
+
+    private suspend fun cached(): LoadResult<Int, Student> {
+        return LoadResult.Page(dao.search(query, SEARCH_LIMIT).map { it.toStudent() }, prevKey = null, nextKey = null)
+    }
+
+    companion object {
+        // The server's student.search.max-limit.
+        private const val SEARCH_LIMIT = 100
+    }
+}
@@ -0,0 +1,123 @@
+package com.gabriel.employeeapp.data.remote
+
+import android.util.Log
+import okhttp3.Call
+import okhttp3.Connection
+import okhttp3.EventListener
+import okhttp3.Protocol
+import okhttp3.Response
+import java.io.IOException
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.net.Proxy
+import java.util.concurrent.atomic.AtomicLong
+
+// Logs one line per call with the time spent in each phase, whether the connection was reused and
+// whether the response came from the HTTP cache (reused is "-" when no connection was needed):
+//   adb logcat -s StudentHttp
+// Only debug builds install it; see RetrofitClient.
+class CallTimingListener(private val callId: Long) : EventListener() {
+    private val callStart = System.nanoTime()
+    private var dnsStart = 0L
+    private var dnsMillis = -1.0
+    private var connectStart = 0L
+    private var connectMillis = -1.0
+    private var requestStart = 0L
+    private var ttfbMillis = -1.0
+    private var bodyStart = 0L
+    private var bodyMillis = -1.0
+    private var bodyBytes = 0L
+    private var acquired = false
+    private var connected = false
+    private var cache = "network"
+
+    override fun dnsStart(call: Call, domainName: String) {
+        dnsStart = System.nanoTime()
+    }
+
+    override fun dnsEnd(call: Call, domainName: String, inetAddressList: List<InetAddress>) {
+        dnsMillis = millisSince(dnsStart)
+    }
+
+    override fun connectStart(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy) {
+        connectStart = System.nanoTime()
+        connected = true
+    }
+
+    override fun connectEnd(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy, protocol: Protocol?) {
+        connectMillis = millisSince(connectStart)
+    }
+
+    override fun connectFailed(
+        call: Call,
+        inetSocketAddress: InetSocketAddress,
+        proxy: Proxy,
+        protocol: Protocol?,
+        ioe: IOException
+    ) {
+        connectMillis = millisSince(connectStart)
+    }
+
+    override fun connectionAcquired(call: Call, connection: Connection) {
+        acquired = true
+    }
+
+    override fun requestHeadersStart(call: Call) {
+        requestStart = System.nanoTime()
+    }
+
+    override fun responseHeadersStart(call: Call) {
+        ttfbMillis = millisSince(requestStart)
+    }
+
+    override fun responseBodyStart(call: Call) {
+        bodyStart = System.nanoTime()
+    }
+
+    override fun responseBodyEnd(call: Call, byteCount: Long) {
+        bodyMillis = millisSince(bodyStart)
+        bodyBytes = byteCount
+    }
+
+    override fun cacheHit(call: Call, response: Response) {
+        cache = "hit"
+    }
+
+    override fun cacheConditionalHit(call: Call, cachedResponse: Response) {
+        cache = "revalidated"
+    }
+
+    override fun cacheMiss(call: Call) {
+        cache = "miss"
+    }
+
+    override fun callEnd(call: Call) {
+        log(call, "ok")
+    }
+
+    override fun callFailed(call: Call, ioe: IOException) {
+        log(call, "failed: ${ioe.message}")
+    }
+
+    private fun log(call: Call, outcome: String) {
+        Log.d(
+            TAG,
+            "#$callId ${call.request().method} ${call.request().url.encodedPath} $outcome" +
+                " total=${format(millisSince(callStart))} dns=${format(dnsMillis)}" +
+                " connect=${format(connectMillis)} ttfb=${format(ttfbMillis)}" +
+                " body=${format(bodyMillis)} bytes=$bodyBytes reused=${if (acquired) !connected else "-"}" +
+                " cache=$cache"
+        )
+    }
+
+    private fun millisSince(start: Long) = (System.nanoTime() - start) / 1_000_000.0
+
+    private fun format(millis: Double) = if (millis < 0) "-" else String.format("%.1fms", millis)
+
+    companion object {
+        private const val TAG = "StudentHttp"
+        private val nextCallId = AtomicLong(1)
+
+        val FACTORY = EventListener.Factory { CallTimingListener(nextCallId.getAndIncrement()) }
+    }
+}
@@ -1,12 +1,25 @@
 package com.gabriel.employeeapp.data.remote
 
 import com.gabriel.employeeapp.data.model.Student
+import com.gabriel.employeeapp.data.model.StudentDelta
 import retrofit2.Response
 import retrofit2.http.*
 
 interface StudentApi {
     @GET("/api/student")
     suspend fun getAllStudents(): Response<List<Student>>
+
+    // One cursor page in id order; the next cursor comes back in X-Next-Cursor and, on the first
+    // page, a delta token in X-Delta-Token.
+    @GET("/api/student")
+    suspend fun getStudentPage(@Query("after") after: String?, @Query("limit") limit: Int): Response<List<Student>>
+
+    @GET("/api/student/search")
+    suspend fun searchStudents(@Query("q") query: String, @Query("limit") limit: Int): Response<List<Student>>
+
+    // Without since the whole roster comes back, with a token only what changed after it.
+    @GET("/api/student/delta")
+    suspend fun getStudentDelta(@Query("since") since: String?): Response<StudentDelta>
     
     @GET("/api/student/{id}")
     suspend fun getStudentById(@Path("id") id: Long): Response<Student>
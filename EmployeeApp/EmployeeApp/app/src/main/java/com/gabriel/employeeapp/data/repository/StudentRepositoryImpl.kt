@@ -1,23 +1,89 @@
 package com.gabriel.employeeapp.data.repository
 
 import android.app.Application
+import androidx.paging.ExperimentalPagingApi
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.map
+import com.gabriel.employeeapp.data.local.StudentDatabase
+import com.gabriel.employeeapp.data.local.toEntity
+import com.gabriel.employeeapp.data.paging.StudentRemoteMediator
+import com.gabriel.employeeapp.data.paging.StudentSearchPagingSource
 import com.gabriel.employeeapp.data.remote.StudentApi
 import com.gabriel.employeeapp.data.model.Student
 import com.gabriel.employeeapp.domain.repository.StudentRepository
 import com.gabriel.employeeapp.di.RetrofitClient
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.map
 
 class StudentRepositoryImpl(
     private val appContext: Application
 ) : StudentRepository {
     
     // Using real Retrofit API for backend connection
-    private val api: StudentApi = RetrofitClient.instance.create(StudentApi::class.java)
+    private val api: StudentApi = RetrofitClient.getInstance(appContext).create(StudentApi::class.java)
+
+    // Room copy of the roster: the UI reads from it and every network result is written into it.
+    private val dao = StudentDatabase.getInstance(appContext).studentDao()
+
+    // Pages from Room, keeping at most MAX_LOADED students in memory. Searches go to the server's
+    // search endpoint instead, so students not paged in yet are found too.
+    @OptIn(ExperimentalPagingApi::class)
+    override fun pagedStudents(query: String): Flow<PagingData<Student>> {
+        val config = PagingConfig(pageSize = PAGE_SIZE, enablePlaceholders = false, maxSize = MAX_LOADED)
+        if (query.isNotBlank()) {
+            return Pager(config) { StudentSearchPagingSource(api, dao, query.trim()) }.flow
+        }
+        return Pager(config, remoteMediator = StudentRemoteMediator(api, dao)) { dao.pagingSource() }
+            .flow
+            .map { pagingData -> pagingData.map { it.toStudent() } }
+    }
+
+    // Revalidates the cache through the delta endpoint, so after the first sync only changed
+    // students and deleted ids cross the network.
+    override suspend fun refreshStudents(): Result<Unit> {
+        return try {
+            var since = dao.getSyncToken()
+            if (since == null) {
+                // Nothing cached yet is the mediator's first page to load; a cache without a token
+                // came from a backend without the delta endpoint and is reloaded whole.
+                return if (dao.count() == 0) Result.success(Unit) else getAllStudents().map { }
+            }
+            while (true) {
+                val response = api.getStudentDelta(since)
+                if (response.code() == 410) {
+                    // The server no longer keeps deletes that far back. Dropping the cache lets the
+                    // mediator start over from the first page rather than downloading the roster here.
+                    dao.clear()
+                    return Result.success(Unit)
+                }
+                if (response.code() == 404) {
+                    // Backend without the delta endpoint.
+                    return getAllStudents().map { }
+                }
+                if (!response.isSuccessful) {
+                    return Result.failure(Exception("Failed to sync students: ${response.code()}"))
+                }
+                val delta = response.body() ?: return Result.failure(Exception("Empty response body"))
+                dao.applySync(delta.students.mapNotNull { it.toEntity() }, delta.deleted, delta.token, false)
+                if (!delta.more) {
+                    break
+                }
+                since = delta.token
+            }
+            Result.success(Unit)
+        } catch (e: Exception) {
+            Result.failure(e)
+        }
+    }
     
     override suspend fun getAllStudents(): Result<List<Student>> {
         return try {
             val response = api.getAllStudents()
             if (response.isSuccessful) {
                 response.body()?.let { students ->
+                    dao.applySync(students.mapNotNull { it.toEntity() }, emptyList(), null, true)
                     Result.success(students)
                 } ?: Result.failure(Exception("Empty response body"))
             } else {
@@ -33,6 +99,7 @@ class StudentRepositoryImpl(
             val response = api.getStudentById(id)
             if (response.isSuccessful) {
                 response.body()?.let { student ->
+                    student.toEntity()?.let { dao.upsert(it) }
                     Result.success(student)
                 } ?: Result.failure(Exception("Student not found"))
             } else {
@@ -48,6 +115,7 @@ class StudentRepositoryImpl(
             val response = api.addStudent(student)
             if (response.isSuccessful) {
                 response.body()?.let { createdStudent ->
+                    createdStudent.toEntity()?.let { dao.upsert(it) }
                     Result.success(createdStudent)
                 } ?: Result.failure(Exception("Failed to create student"))
             } else {
@@ -63,8 +131,12 @@ class StudentRepositoryImpl(
             val response = api.updateStudent(student.id ?: 0L, student)
             if (response.isSuccessful) {
                 response.body()?.let { updatedStudent ->
+                    updatedStudent.toEntity()?.let { dao.upsert(it) }
                     Result.success(updatedStudent)
                 } ?: Result.failure(Exception("Failed to update student"))
+            } else if (response.code() == 409) {
+                // Edited from an outdated copy; the next refresh brings the current one.
+                Result.failure(Exception("${student.firstName} ${student.lastName} was changed elsewhere, refresh and try again"))
             } else {
                 Result.failure(Exception("Failed to update student: ${response.code()}"))
             }
@@ -77,6 +149,7 @@ class StudentRepositoryImpl(
         return try {
             val response = api.deleteStudent(id)
             if (response.isSuccessful) {
+                dao.deleteById(id)
                 Result.success(Unit)
             } else {
                 Result.failure(Exception("Failed to delete student: ${response.code()}"))
@@ -85,4 +158,9 @@ class StudentRepositoryImpl(
             Result.failure(e)
         }
     }
+
+    companion object {
+        private const val PAGE_SIZE = 50
+        private const val MAX_LOADED = 300
+    }
 }
\ No newline at end of file
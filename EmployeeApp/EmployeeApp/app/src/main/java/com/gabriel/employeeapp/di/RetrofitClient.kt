@@ -1,16 +1,53 @@
 package com.gabriel.employeeapp.di
 
+import android.content.Context
+import com.gabriel.employeeapp.BuildConfig
+import com.gabriel.employeeapp.data.remote.CallTimingListener
+import okhttp3.Cache
+import okhttp3.ConnectionPool
+import okhttp3.OkHttpClient
 import retrofit2.Retrofit
 import retrofit2.converter.gson.GsonConverterFactory
+import java.io.File
+import java.util.concurrent.TimeUnit
 
 object RetrofitClient {
     private const val BASE_URL = "http://10.0.2.2:8080/"
+    private const val CACHE_SIZE = 10L * 1024 * 1024
 
-    val instance: Retrofit by lazy {
-        Retrofit.Builder()
-            .baseUrl(BASE_URL)
-            .addConverterFactory(GsonConverterFactory.create())
-            .build()
+    // Idle connections are closed a little before sbstudms' 60 s keep-alive timeout, so a pooled
+    // connection is not reused just as the server drops it.
+    private const val KEEP_ALIVE_SECONDS = 55L
+    private const val MAX_IDLE_CONNECTIONS = 5
+
+    @Volatile
+    private var INSTANCE: Retrofit? = null
+
+    fun getInstance(context: Context): Retrofit {
+        return INSTANCE ?: synchronized(this) {
+            INSTANCE ?: Retrofit.Builder()
+                .baseUrl(BASE_URL)
+                .client(createClient(context.applicationContext))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .also { INSTANCE = it }
+        }
     }
 
-}
\ No newline at end of file
+    // The disk cache stores responses by the server's headers: the student list and single students
+    // come with no-cache and an ETag, so repeats are sent as If-None-Match and a 304 reuses the
+    // cached body. OkHttp asks for gzip and unzips by itself as long as no interceptor sets
+    // Accept-Encoding, so none is added here. Call timing is logged by debug builds only; a release
+    // build would pay for the listener and a log line on every call.
+    private fun createClient(context: Context): OkHttpClient {
+        val builder = OkHttpClient.Builder()
+            .cache(Cache(File(context.cacheDir, "http_cache"), CACHE_SIZE))
+            .connectionPool(ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS))
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+        if (BuildConfig.DEBUG) {
+            builder.eventListenerFactory(CallTimingListener.FACTORY)
+        }
+        return builder.build()
+    }
+}
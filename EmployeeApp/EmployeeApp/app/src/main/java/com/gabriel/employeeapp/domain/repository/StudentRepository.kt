@@ -1,8 +1,12 @@
 package com.gabriel.employeeapp.domain.repository
 
 import com.gabriel.employeeapp.data.model.Student
+import androidx.paging.PagingData
+import kotlinx.coroutines.flow.Flow
 
 interface StudentRepository {
+    fun pagedStudents(query: String): Flow<PagingData<Student>>
+    suspend fun refreshStudents(): Result<Unit>
     suspend fun getAllStudents(): Result<List<Student>>
     suspend fun getStudentById(id: Long): Result<Student>
     suspend fun addStudent(student: Student): Result<Student>
@@ -0,0 +1,61 @@
+package com.gabriel.studms.benchmark;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Full request path through the DispatcherServlet, controller, service, repository and Jackson,
+// without the network. get() goes through the service's read-through cache.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ControllerBenchmark {
+	@Param({"1000"})
+	int rows;
+	ConfigurableApplicationContext context;
+	MockMvc mockMvc;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = Students.start(WebApplicationType.SERVLET, rows);
+		mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public MvcResult list() throws Exception {
+		return mockMvc.perform(get("/api/student")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult listPage() throws Exception {
+		return mockMvc.perform(get("/api/student").param("limit", "50")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult getById() throws Exception {
+		return mockMvc.perform(get("/api/student/{id}", ThreadLocalRandom.current().nextInt(rows) + 1)).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult create() throws Exception {
+		return mockMvc.perform(post("/api/student").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"firstName\":\"Bench\",\"lastName\":\"Mark\",\"studentNumber\":\"2024-999999\",\"email\":\"bench@university.edu\",\"department\":\"CS\"}"))
+				.andReturn();
+	}
+}
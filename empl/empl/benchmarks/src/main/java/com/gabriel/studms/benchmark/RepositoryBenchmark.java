@@ -0,0 +1,58 @@
+package com.gabriel.studms.benchmark;
+import com.gabriel.studms.entity.StudentData;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.repository.StudentDataRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+	@Param({"1000", "10000"})
+	int rows;
+	ConfigurableApplicationContext context;
+	StudentDataRepository repository;
+	int counter;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = Students.start(WebApplicationType.NONE, rows);
+		repository = context.getBean(StudentDataRepository.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void findAll(Blackhole blackhole) {
+		for (StudentData studentData : repository.findAll()) {
+			blackhole.consume(studentData);
+		}
+	}
+
+	@Benchmark
+	public List<Student> findAllStudents() {
+		return repository.findAllStudents();
+	}
+
+	@Benchmark
+	public Object findById() {
+		return repository.findById(ThreadLocalRandom.current().nextInt(rows) + 1);
+	}
+
+	@Benchmark
+	public StudentData save() {
+		return repository.save(Students.studentData(rows + counter++));
+	}
+}
@@ -0,0 +1,34 @@
+package com.gabriel.studms.benchmark;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabriel.studms.model.Student;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.util.concurrent.TimeUnit;
+
+// Serializes Student[] the way the controllers do, including the @JsonFormat date fields.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+	@Param({"1", "100", "10000"})
+	int size;
+	ObjectMapper objectMapper;
+	Student[] students;
+
+	@Setup
+	public void setup() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		students = new Student[size];
+		for (int i = 0; i < size; i++) {
+			students[i] = Students.student(i);
+		}
+	}
+
+	@Benchmark
+	public byte[] serializeArray() throws Exception {
+		return objectMapper.writeValueAsBytes(students);
+	}
+}
@@ -0,0 +1,60 @@
+package com.gabriel.studms.benchmark;
+import com.gabriel.studms.StudentMSApplication;
+import com.gabriel.studms.entity.StudentData;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.repository.StudentDataRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Shared fixtures: synthetic rows and an application context on the embedded H2 (MySQL mode) profile.
+final class Students {
+	private Students() {
+	}
+
+	static Student student(int i) {
+		Student student = new Student();
+		student.setId(i + 1);
+		student.setFirstName("First" + i);
+		student.setLastName("Last" + i);
+		student.setStudentNumber(String.format("2024-%06d", i));
+		student.setEmail("student" + i + "@university.edu");
+		student.setDepartment("Department " + (i % 12));
+		student.setCreated(new Date());
+		student.setLastUpdated(new Date());
+		return student;
+	}
+
+	static StudentData studentData(int i) {
+		StudentData studentData = new StudentData();
+		studentData.setFirstName("First" + i);
+		studentData.setLastName("Last" + i);
+		studentData.setStudentNumber(String.format("2024-%06d", i));
+		studentData.setEmail("student" + i + "@university.edu");
+		studentData.setDepartment("Department " + (i % 12));
+		return studentData;
+	}
+
+	static ConfigurableApplicationContext start(WebApplicationType type, int rows) {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentMSApplication.class)
+				.web(type)
+				.profiles("h2")
+				// The numbers are for the database path, whatever the second-level cache default is.
+				.properties("server.port=0", "logging.level.root=WARN", "logging.level.com.gabriel=WARN",
+						"student.hibernate-cache.enabled=false")
+				.run();
+		StudentDataRepository repository = context.getBean(StudentDataRepository.class);
+		List<StudentData> batch = new ArrayList<>();
+		for (int i = 0; i < rows; i++) {
+			batch.add(studentData(i));
+			if (batch.size() == 1000 || i == rows - 1) {
+				repository.saveAll(batch);
+				batch.clear();
+			}
+		}
+		return context;
+	}
+}
@@ -0,0 +1,39 @@
+package com.gabriel.studms.benchmark;
+import com.gabriel.studms.entity.StudentData;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.transform.TransformStudentService;
+import com.gabriel.studms.transform.TransformStudentServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransformBenchmark {
+	TransformStudentService transformStudentService = new TransformStudentServiceImpl();
+	Student student;
+	StudentData studentData;
+
+	@Setup
+	public void setup() {
+		student = Students.student(42);
+		studentData = Students.studentData(42);
+		studentData.setId(43);
+		studentData.setCreated(new Date());
+		studentData.setLastUpdated(new Date());
+	}
+
+	@Benchmark
+	public StudentData toStudentData() {
+		return transformStudentService.transform(student);
+	}
+
+	@Benchmark
+	public Student toStudent() {
+		return transformStudentService.transform(studentData);
+	}
+}
@@ -0,0 +1,24 @@
+package com.gabriel.studms.loadtest;
+
+enum Endpoint {
+	LIST("list"),
+	GET("get"),
+	CREATE("create"),
+	UPDATE("update"),
+	DELETE("delete");
+
+	final String name;
+
+	Endpoint(String name) {
+		this.name = name;
+	}
+
+	static Endpoint of(String name) {
+		for (Endpoint endpoint : values()) {
+			if (endpoint.name.equalsIgnoreCase(name)) {
+				return endpoint;
+			}
+		}
+		throw new IllegalArgumentException("Unknown endpoint: " + name);
+	}
+}
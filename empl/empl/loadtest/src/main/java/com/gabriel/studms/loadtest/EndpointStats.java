@@ -0,0 +1,68 @@
+package com.gabriel.studms.loadtest;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency and outcome counts for one endpoint. Latencies are recorded in microseconds.
+class EndpointStats {
+	final Endpoint endpoint;
+	final double targetRate;
+	private final Recorder recorder = new Recorder(3);
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+	// Status 0 stands for a request that failed before any response arrived.
+	private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+	EndpointStats(Endpoint endpoint, double targetRate) {
+		this.endpoint = endpoint;
+		this.targetRate = targetRate;
+	}
+
+	void record(long latencyNanos, int status) {
+		recorder.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+		statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+		if (status == 0 || status >= 400) {
+			errors.increment();
+		}
+	}
+
+	void dropped() {
+		dropped.increment();
+	}
+
+	void skipped() {
+		skipped.increment();
+	}
+
+	LoadReport.EndpointReport report(double seconds) {
+		Histogram histogram = recorder.getIntervalHistogram();
+		LoadReport.EndpointReport report = new LoadReport.EndpointReport();
+		report.setEndpoint(endpoint.name);
+		report.setTargetRate(targetRate);
+		report.setRequests(histogram.getTotalCount());
+		report.setAchievedRate(histogram.getTotalCount() / seconds);
+		report.setErrors(errors.sum());
+		report.setDropped(dropped.sum());
+		report.setSkipped(skipped.sum());
+		Map<String, Long> counts = new TreeMap<>();
+		statuses.forEach((status, count) -> counts.put(String.valueOf(status), count.sum()));
+		report.setStatuses(counts);
+		report.setP50Millis(millis(histogram.getValueAtPercentile(50)));
+		report.setP90Millis(millis(histogram.getValueAtPercentile(90)));
+		report.setP99Millis(millis(histogram.getValueAtPercentile(99)));
+		report.setP999Millis(millis(histogram.getValueAtPercentile(99.9)));
+		report.setMaxMillis(millis(histogram.getMaxValue()));
+		report.setMeanMillis(histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / 1000.0);
+		report.setHistogram(histogram);
+		return report;
+	}
+
+	static double millis(long micros) {
+		return micros / 1000.0;
+	}
+}
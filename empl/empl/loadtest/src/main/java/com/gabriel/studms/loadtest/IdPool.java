@@ -0,0 +1,37 @@
+package com.gabriel.studms.loadtest;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Ids known to exist on the server. Reads and updates pick one at random; deletes take one out so
+// the same id is not deleted twice. Removal swaps in the last element, so every operation is O(1).
+class IdPool {
+	private int[] ids = new int[1024];
+	private int size;
+
+	synchronized void add(int id) {
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, size * 2);
+		}
+		ids[size++] = id;
+	}
+
+	// Returns -1 when the pool is empty.
+	synchronized int pick() {
+		return size == 0 ? -1 : ids[ThreadLocalRandom.current().nextInt(size)];
+	}
+
+	// Returns -1 when the pool is empty.
+	synchronized int take() {
+		if (size == 0) {
+			return -1;
+		}
+		int at = ThreadLocalRandom.current().nextInt(size);
+		int id = ids[at];
+		ids[at] = ids[--size];
+		return id;
+	}
+
+	synchronized int size() {
+		return size;
+	}
+}
@@ -0,0 +1,45 @@
+package com.gabriel.studms.loadtest;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import org.HdrHistogram.Histogram;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+class LoadReport {
+	String target;
+	// Set when the run is one side of a --compare.
+	String mode;
+	String url;
+	String startedAt;
+	long seededStudents;
+	long seedMillis;
+	int warmupSeconds;
+	int durationSeconds;
+	int maxInFlight;
+	String listQuery;
+	List<EndpointReport> endpoints = new ArrayList<>();
+
+	@Data
+	static class EndpointReport {
+		String endpoint;
+		double targetRate;
+		double achievedRate;
+		long requests;
+		long errors;
+		// Arrivals not sent because max-in-flight requests were already outstanding.
+		long dropped;
+		// Arrivals not sent because no student id was available to address.
+		long skipped;
+		Map<String, Long> statuses;
+		double p50Millis;
+		double p90Millis;
+		double p99Millis;
+		double p999Millis;
+		double maxMillis;
+		double meanMillis;
+		@JsonIgnore
+		Histogram histogram;
+	}
+}
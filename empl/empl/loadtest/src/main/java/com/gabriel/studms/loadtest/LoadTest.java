@@ -0,0 +1,147 @@
+package com.gabriel.studms.loadtest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Seeds a student service and drives it with the open-model workload, then writes a JSON report
+// plus one HdrHistogram percentile file per endpoint. With --compare the service is launched once per
+// mode under the same workload and a side by side comparison is written as well.
+//
+//   mvn -pl loadtest exec:exec -Dloadtest.args="--launch=../sbstudms/target/sbstudms-1.0-SNAPSHOT-exec.jar --seed=100000"
+//   mvn -pl loadtest exec:exec -Dloadtest.args="--target=student-backend --java=/opt/jdk-21/bin/java
+//       --launch=../../../EmployeeApp/student-backend/target/student-backend-0.0.1-SNAPSHOT.jar
+//       --compare=platform,virtual --rates=get=2000,create=200,update=200 --max-in-flight=10000"
+public class LoadTest {
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options;
+		try {
+			options = LoadTestOptions.parse(args);
+		}
+		catch (IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.err.println(LoadTestOptions.USAGE);
+			System.exit(2);
+			return;
+		}
+		String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+		ObjectMapper mapper = new ObjectMapper();
+		if (!options.getCompare().isEmpty()) {
+			List<LoadReport> reports = new ArrayList<>();
+			for (String mode : options.getCompare()) {
+				System.out.println("Starting " + options.getLaunch() + " in " + mode + " mode on the h2 profile");
+				try (TargetProcess process = TargetProcess.launch(options, mode)) {
+					LoadReport report = run(options, process.url, mode);
+					write(report, options.getReportDir(), options.getTarget().name + "-" + mode + "-" + stamp, mapper);
+					reports.add(report);
+				}
+			}
+			compare(reports, options.getReportDir(), options.getTarget().name + "-compare-" + stamp, mapper);
+			return;
+		}
+		TargetProcess process = null;
+		try {
+			String url = options.getUrl() != null ? options.getUrl() : "http://localhost:" + options.getTarget().defaultPort;
+			if (options.getLaunch() != null) {
+				System.out.println("Starting " + options.getLaunch() + " on the h2 profile");
+				process = TargetProcess.launch(options, null);
+				url = process.url;
+			}
+			write(run(options, url, null), options.getReportDir(), options.getTarget().name + "-" + stamp, mapper);
+		}
+		finally {
+			if (process != null) {
+				process.close();
+			}
+		}
+	}
+
+	static LoadReport run(LoadTestOptions options, String url, String mode) throws IOException, InterruptedException {
+		ObjectMapper mapper = new ObjectMapper();
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		SyntheticStudents students = new SyntheticStudents(Long.toString(System.currentTimeMillis(), 36));
+		IdPool ids = new IdPool();
+		LocalDateTime startedAt = LocalDateTime.now();
+
+		System.out.println("Seeding " + options.getSeed() + " students into " + url);
+		long seedStart = System.nanoTime();
+		new Seeder(client, mapper, url, students, ids).seed(options.getTarget(), options.getSeed(), options.getSeedConcurrency());
+		long seedMillis = Duration.ofNanos(System.nanoTime() - seedStart).toMillis();
+		System.out.println("Seeded in " + seedMillis + " ms, " + ids.size() + " ids available");
+
+		System.out.println("Running " + options.getRates() + " req/s for " + options.getWarmupSeconds() + " s warmup + "
+				+ options.getDurationSeconds() + " s");
+		Workload workload = new Workload(client, mapper, url, options.getListQuery(), students, ids,
+				options.getMaxInFlight(), options.getSeed());
+
+		LoadReport report = new LoadReport();
+		report.setTarget(options.getTarget().name);
+		report.setMode(mode);
+		report.setUrl(url);
+		report.setStartedAt(startedAt.toString());
+		report.setSeededStudents(options.getSeed());
+		report.setSeedMillis(seedMillis);
+		report.setWarmupSeconds(options.getWarmupSeconds());
+		report.setDurationSeconds(options.getDurationSeconds());
+		report.setMaxInFlight(options.getMaxInFlight());
+		report.setListQuery(options.getListQuery());
+		for (EndpointStats endpointStats : workload.run(options.getRates(), options.getWarmupSeconds(), options.getDurationSeconds())) {
+			report.getEndpoints().add(endpointStats.report(options.getDurationSeconds()));
+		}
+		return report;
+	}
+
+	static void write(LoadReport report, Path dir, String name, ObjectMapper mapper) throws IOException {
+		Files.createDirectories(dir);
+		Path json = dir.resolve(name + ".json");
+		mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(json.toFile(), report);
+		System.out.printf("%n%-8s %9s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+				"endpoint", "target/s", "actual/s", "requests", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "dropped");
+		for (LoadReport.EndpointReport endpoint : report.getEndpoints()) {
+			System.out.printf("%-8s %9.1f %9.1f %8d %7d %9.2f %9.2f %9.2f %9.2f %9d%n",
+					endpoint.getEndpoint(), endpoint.getTargetRate(), endpoint.getAchievedRate(), endpoint.getRequests(),
+					endpoint.getErrors(), endpoint.getP50Millis(), endpoint.getP99Millis(), endpoint.getP999Millis(),
+					endpoint.getMaxMillis(), endpoint.getDropped());
+			try (PrintStream out = new PrintStream(dir.resolve(name + "-" + endpoint.getEndpoint() + ".hgrm").toFile())) {
+				// Values are recorded in microseconds; the scaling ratio prints them in milliseconds.
+				endpoint.getHistogram().outputPercentileDistribution(out, 1000.0);
+			}
+		}
+		System.out.println("\nReport written to " + json);
+	}
+
+	// One row per endpoint and mode so the runs can be read against each other; the per-mode reports
+	// and histograms are written alongside by write.
+	static void compare(List<LoadReport> reports, Path dir, String name, ObjectMapper mapper) throws IOException {
+		Files.createDirectories(dir);
+		Path json = dir.resolve(name + ".json");
+		mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(json.toFile(), Map.of("runs", reports));
+		System.out.printf("%n%-8s %-10s %9s %9s %9s %9s %7s %9s%n",
+				"endpoint", "mode", "actual/s", "p50 ms", "p99 ms", "p99.9 ms", "errors", "dropped");
+		for (LoadReport.EndpointReport first : reports.get(0).getEndpoints()) {
+			for (LoadReport report : reports) {
+				for (LoadReport.EndpointReport endpoint : report.getEndpoints()) {
+					if (endpoint.getEndpoint().equals(first.getEndpoint())) {
+						System.out.printf("%-8s %-10s %9.1f %9.2f %9.2f %9.2f %7d %9d%n",
+								endpoint.getEndpoint(), report.getMode(), endpoint.getAchievedRate(), endpoint.getP50Millis(),
+								endpoint.getP99Millis(), endpoint.getP999Millis(), endpoint.getErrors(), endpoint.getDropped());
+					}
+				}
+			}
+		}
+		System.out.println("\nComparison written to " + json);
+	}
+}
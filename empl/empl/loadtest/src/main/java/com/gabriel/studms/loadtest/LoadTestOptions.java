@@ -0,0 +1,94 @@
+package com.gabriel.studms.loadtest;
+import lombok.Data;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Command line options, all given as --name=value.
+@Data
+class LoadTestOptions {
+	static final String USAGE = String.join("\n",
+			"Usage: LoadTest [--name=value ...]",
+			"  --target=sbstudms                   service under test: sbstudms (default), student-backend or",
+			"                                      sbstudms-reactive",
+			"  --url=http://localhost:8080         base url of a running service (default port depends on target)",
+			"  --launch=path/to/app.jar            start the service from this jar on the h2 profile instead",
+			"  --jvm-args=\"-Xmx4g\"                 extra JVM options for the launched service",
+			"  --java=/path/to/jdk-21/bin/java     JVM for the launched service (default: the one running this)",
+			"  --compare=platform,virtual          with --launch, run once per mode and compare; each mode other",
+			"                                      than platform is activated as an extra Spring profile",
+			"  --seed=10000                        synthetic students to create before the run (0 to skip)",
+			"  --rates=list=2,get=200,create=20,update=20,delete=10   target requests per second",
+			"  --warmup=10                         seconds of load before recording starts",
+			"  --duration=60                       seconds of recorded load",
+			"  --list-query=                       query string for the list call, e.g. limit=50",
+			"  --max-in-flight=2000                outstanding requests before new arrivals are dropped",
+			"  --seed-concurrency=32               parallel POSTs when seeding without CSV import",
+			"  --report-dir=target/loadtest        where the JSON report and histograms are written");
+
+	Target target = Target.SBSTUDMS;
+	String url;
+	Path launch;
+	String jvmArgs = "";
+	Path java;
+	List<String> compare = List.of();
+	long seed = 10_000;
+	Map<Endpoint, Double> rates = rates("list=2,get=200,create=20,update=20,delete=10");
+	int warmupSeconds = 10;
+	int durationSeconds = 60;
+	String listQuery = "";
+	int maxInFlight = 2000;
+	int seedConcurrency = 32;
+	Path reportDir = Path.of("target", "loadtest");
+
+	static LoadTestOptions parse(String[] args) {
+		LoadTestOptions options = new LoadTestOptions();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value but found " + arg);
+			}
+			String name = arg.substring(2, arg.indexOf('='));
+			String value = arg.substring(arg.indexOf('=') + 1);
+			switch (name) {
+				case "target": options.target = Target.of(value); break;
+				case "url": options.url = value; break;
+				case "launch": options.launch = Path.of(value); break;
+				case "jvm-args": options.jvmArgs = value; break;
+				case "java": options.java = Path.of(value); break;
+				case "compare": options.compare = List.of(value.split(",")); break;
+				case "seed": options.seed = Long.parseLong(value.replace("_", "")); break;
+				case "rates": options.rates = rates(value); break;
+				case "warmup": options.warmupSeconds = Integer.parseInt(value); break;
+				case "duration": options.durationSeconds = Integer.parseInt(value); break;
+				case "list-query": options.listQuery = value; break;
+				case "max-in-flight": options.maxInFlight = Integer.parseInt(value); break;
+				case "seed-concurrency": options.seedConcurrency = Integer.parseInt(value); break;
+				case "report-dir": options.reportDir = Path.of(value); break;
+				default: throw new IllegalArgumentException("Unknown option --" + name);
+			}
+		}
+		if (!options.compare.isEmpty() && options.launch == null) {
+			throw new IllegalArgumentException("--compare needs --launch, since each mode starts its own service");
+		}
+		if (options.seed < 0 || options.durationSeconds <= 0 || options.warmupSeconds < 0 || options.maxInFlight <= 0) {
+			throw new IllegalArgumentException("seed and warmup must not be negative, duration and max-in-flight must be positive");
+		}
+		return options;
+	}
+
+	static Map<Endpoint, Double> rates(String spec) {
+		Map<Endpoint, Double> rates = new EnumMap<>(Endpoint.class);
+		for (String entry : spec.split(",")) {
+			String[] pair = entry.trim().split("=");
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Expected endpoint=rate but found " + entry);
+			}
+			double rate = Double.parseDouble(pair[1]);
+			if (rate > 0) {
+				rates.put(Endpoint.of(pair[0].trim()), rate);
+			}
+		}
+		return rates;
+	}
+}
@@ -0,0 +1,153 @@
+package com.gabriel.studms.loadtest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Creates the synthetic students before the measured run and fills the id pool the workload draws from.
+class Seeder {
+	static final int PAGE_LIMIT = 500;
+	final HttpClient client;
+	final ObjectMapper mapper;
+	final String url;
+	final SyntheticStudents students;
+	final IdPool ids;
+
+	Seeder(HttpClient client, ObjectMapper mapper, String url, SyntheticStudents students, IdPool ids) {
+		this.client = client;
+		this.mapper = mapper;
+		this.url = url;
+		this.students = students;
+		this.ids = ids;
+	}
+
+	void seed(Target target, long rows, int concurrency) throws IOException, InterruptedException {
+		if (target.csvImport) {
+			if (rows > 0) {
+				importCsv(rows);
+			}
+			collectIds();
+		}
+		else {
+			post(rows, concurrency);
+		}
+	}
+
+	// Streams a generated CSV into the import endpoint, so even 10M rows never sit in memory here.
+	void importCsv(long rows) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/student/import"))
+				.header("Content-Type", "text/csv")
+				.POST(HttpRequest.BodyPublishers.ofInputStream(() -> new CsvStream(students, rows)))
+				.build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IOException("Import failed with " + response.statusCode() + ": " + response.body());
+		}
+		JsonNode report = mapper.readTree(response.body());
+		if (report.path("rejected").asLong() > 0) {
+			System.err.println("Import rejected " + report.path("rejected").asLong() + " rows: " + report.path("rejections"));
+		}
+	}
+
+	// Walks the cursor-paged list to learn every id, including rows that were there before the seed.
+	void collectIds() throws IOException, InterruptedException {
+		String cursor = null;
+		do {
+			String query = "?limit=" + PAGE_LIMIT + (cursor == null ? "" : "&after=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+			HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/student" + query)).timeout(Duration.ofMinutes(1)).build();
+			HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+			if (response.statusCode() != 200) {
+				throw new IOException("Listing ids failed with " + response.statusCode());
+			}
+			for (JsonNode student : mapper.readTree(response.body())) {
+				ids.add(student.path("id").asInt());
+			}
+			cursor = response.headers().firstValue("X-Next-Cursor").orElse(null);
+		}
+		while (cursor != null);
+	}
+
+	void post(long rows, int concurrency) throws IOException, InterruptedException {
+		Semaphore permits = new Semaphore(concurrency);
+		AtomicLong failures = new AtomicLong();
+		AtomicReference<String> lastFailure = new AtomicReference<>();
+		for (long n = 0; n < rows; n++) {
+			permits.acquire();
+			HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/student"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(students.student(n))))
+					.build();
+			client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, ex) -> {
+				try {
+					if (ex == null && response.statusCode() < 300) {
+						ids.add(mapper.readTree(response.body()).path("id").asInt());
+					}
+					else {
+						failures.incrementAndGet();
+						lastFailure.set(ex != null ? ex.toString() : "HTTP " + response.statusCode());
+					}
+				}
+				catch (IOException parseEx) {
+					failures.incrementAndGet();
+					lastFailure.set(parseEx.toString());
+				}
+				finally {
+					permits.release();
+				}
+			});
+		}
+		permits.acquire(concurrency);
+		if (failures.get() > 0) {
+			throw new IOException(failures.get() + " of " + rows + " seed requests failed, last: " + lastFailure.get());
+		}
+	}
+
+	// CSV body generated line by line on demand.
+	static class CsvStream extends InputStream {
+		final SyntheticStudents students;
+		final long rows;
+		long next;
+		byte[] line = SyntheticStudents.CSV_HEADER.getBytes(StandardCharsets.UTF_8);
+		int position;
+
+		CsvStream(SyntheticStudents students, long rows) {
+			this.students = students;
+			this.rows = rows;
+		}
+
+		@Override
+		public int read() {
+			byte[] one = new byte[1];
+			return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) {
+			int copied = 0;
+			while (copied < length) {
+				if (position == line.length) {
+					if (next == rows) {
+						break;
+					}
+					line = students.csvLine(next++).getBytes(StandardCharsets.UTF_8);
+					position = 0;
+				}
+				int count = Math.min(length - copied, line.length - position);
+				System.arraycopy(line, position, buffer, offset + copied, count);
+				position += count;
+				copied += count;
+			}
+			return copied == 0 && length > 0 ? -1 : copied;
+		}
+	}
+}
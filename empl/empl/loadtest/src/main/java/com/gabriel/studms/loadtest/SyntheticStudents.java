@@ -0,0 +1,47 @@
+package com.gabriel.studms.loadtest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Deterministic synthetic students. The run prefix keeps student numbers and emails unique across
+// runs against the same database, since student-backend enforces both as unique columns.
+class SyntheticStudents {
+	static final String[] FIRST_NAMES = {"Ada", "Alan", "Barbara", "Claude", "Donald", "Edsger", "Frances", "Grace",
+			"John", "Katherine", "Leslie", "Margaret", "Niklaus", "Radia", "Tim", "Shafi"};
+	static final String[] LAST_NAMES = {"Lovelace", "Turing", "Liskov", "Shannon", "Knuth", "Dijkstra", "Allen",
+			"Hopper", "Backus", "Johnson", "Lamport", "Hamilton", "Wirth", "Perlman", "Berners-Lee", "Cerf"};
+	static final String[] DEPARTMENTS = {"Computer Science", "Mathematics", "Physics", "Chemistry", "Biology",
+			"Economics", "History", "Philosophy", "Engineering", "Medicine", "Law", "Music"};
+	static final String CSV_HEADER = "firstName,lastName,studentNumber,email,department\n";
+
+	final String run;
+
+	SyntheticStudents(String run) {
+		this.run = run;
+	}
+
+	Map<String, Object> student(long n) {
+		Map<String, Object> student = new LinkedHashMap<>();
+		student.put("firstName", FIRST_NAMES[(int) (n % FIRST_NAMES.length)]);
+		student.put("lastName", LAST_NAMES[(int) ((n / FIRST_NAMES.length) % LAST_NAMES.length)]);
+		student.put("studentNumber", studentNumber(n));
+		student.put("email", email(n));
+		student.put("department", DEPARTMENTS[(int) (n % DEPARTMENTS.length)]);
+		return student;
+	}
+
+	String csvLine(long n) {
+		return FIRST_NAMES[(int) (n % FIRST_NAMES.length)] + ","
+				+ LAST_NAMES[(int) ((n / FIRST_NAMES.length) % LAST_NAMES.length)] + ","
+				+ studentNumber(n) + ","
+				+ email(n) + ","
+				+ DEPARTMENTS[(int) (n % DEPARTMENTS.length)] + "\n";
+	}
+
+	String studentNumber(long n) {
+		return run + "-" + n;
+	}
+
+	String email(long n) {
+		return "student" + n + "." + run + "@university.edu";
+	}
+}
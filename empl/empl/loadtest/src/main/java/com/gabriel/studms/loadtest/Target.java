@@ -0,0 +1,28 @@
+package com.gabriel.studms.loadtest;
+
+// The student services share the same /api/student routes but differ in how they can be seeded:
+// sbstudms streams a CSV through its import endpoint, the others only take one POST per student.
+enum Target {
+	SBSTUDMS("sbstudms", 8080, true),
+	STUDENT_BACKEND("student-backend", 8081, false),
+	SBSTUDMS_REACTIVE("sbstudms-reactive", 8082, false);
+
+	final String name;
+	final int defaultPort;
+	final boolean csvImport;
+
+	Target(String name, int defaultPort, boolean csvImport) {
+		this.name = name;
+		this.defaultPort = defaultPort;
+		this.csvImport = csvImport;
+	}
+
+	static Target of(String name) {
+		for (Target target : values()) {
+			if (target.name.equalsIgnoreCase(name)) {
+				return target;
+			}
+		}
+		throw new IllegalArgumentException("Unknown target: " + name + " (expected sbstudms, student-backend or sbstudms-reactive)");
+	}
+}
@@ -0,0 +1,90 @@
+package com.gabriel.studms.loadtest;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Runs the service under test in its own JVM on the embedded H2 profile, so the load generator
+// does not share a heap or GC with it and nothing but loopback networking is needed.
+class TargetProcess implements AutoCloseable {
+	static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+	final Process process;
+	final String url;
+	final Path log;
+
+	private TargetProcess(Process process, String url, Path log) {
+		this.process = process;
+		this.url = url;
+		this.log = log;
+	}
+
+	// mode is null for a single run; in a comparison every mode but "platform" adds a Spring profile.
+	static TargetProcess launch(LoadTestOptions options, String mode) throws IOException, InterruptedException {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		List<String> command = new ArrayList<>();
+		command.add(options.getJava() != null ? options.getJava().toString()
+				: Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		if (!options.getJvmArgs().isBlank()) {
+			command.addAll(Arrays.asList(options.getJvmArgs().trim().split("\\s+")));
+		}
+		command.add("-jar");
+		command.add(options.getLaunch().toString());
+		command.add("--server.port=" + port);
+		// student-backend has no h2 profile and is on H2 already; the extra profile is harmless there.
+		command.add("--spring.profiles.active=h2" + (mode == null || mode.equals("platform") ? "" : "," + mode));
+		command.add("--spring.jpa.show-sql=false");
+		command.add("--logging.level.root=WARN");
+		command.add("--logging.level.com.gabriel=WARN");
+		Files.createDirectories(options.getReportDir());
+		Path log = options.getReportDir().resolve(options.getTarget().name + (mode == null ? "" : "-" + mode) + "-server.log");
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+		TargetProcess targetProcess = new TargetProcess(process, "http://localhost:" + port, log);
+		try {
+			targetProcess.awaitReady();
+		}
+		catch (IOException | InterruptedException | RuntimeException ex) {
+			targetProcess.close();
+			throw ex;
+		}
+		return targetProcess;
+	}
+
+	void awaitReady() throws IOException, InterruptedException {
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/student/0")).timeout(Duration.ofSeconds(5)).build();
+		long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException("Service exited with " + process.exitValue() + ", see " + log);
+			}
+			try {
+				client.send(request, HttpResponse.BodyHandlers.discarding());
+				return;
+			}
+			catch (IOException ex) {
+				Thread.sleep(250);
+			}
+		}
+		throw new IllegalStateException("Service did not start within " + STARTUP_TIMEOUT + ", see " + log);
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		process.destroy();
+		if (!process.waitFor(30, TimeUnit.SECONDS)) {
+			process.destroyForcibly();
+		}
+	}
+}
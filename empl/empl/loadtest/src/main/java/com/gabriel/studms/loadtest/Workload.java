@@ -0,0 +1,159 @@
+package com.gabriel.studms.loadtest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model workload: every endpoint has its own Poisson arrival schedule, and requests go out at
+// their scheduled time whether or not earlier ones have answered. Latency is measured from the
+// scheduled time, not the send time, so a stalled server shows up in the tail instead of quietly
+// lowering the offered load (coordinated omission).
+class Workload {
+	static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+	final HttpClient client;
+	final ObjectMapper mapper;
+	final String url;
+	final String listQuery;
+	final SyntheticStudents students;
+	final IdPool ids;
+	final Semaphore inFlight;
+	final int maxInFlight;
+	final AtomicLong sequence;
+	final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+	Workload(HttpClient client, ObjectMapper mapper, String url, String listQuery, SyntheticStudents students, IdPool ids,
+			int maxInFlight, long firstSequence) {
+		this.client = client;
+		this.mapper = mapper;
+		this.url = url;
+		this.listQuery = listQuery;
+		this.students = students;
+		this.ids = ids;
+		this.maxInFlight = maxInFlight;
+		this.inFlight = new Semaphore(maxInFlight);
+		this.sequence = new AtomicLong(firstSequence);
+	}
+
+	List<EndpointStats> run(Map<Endpoint, Double> rates, int warmupSeconds, int durationSeconds) throws InterruptedException {
+		rates.forEach((endpoint, rate) -> stats.put(endpoint, new EndpointStats(endpoint, rate)));
+		long start = System.nanoTime();
+		long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+		long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+		List<Thread> schedulers = new ArrayList<>();
+		for (EndpointStats endpointStats : stats.values()) {
+			Thread scheduler = new Thread(() -> schedule(endpointStats, start, measureFrom, end), "loadtest-" + endpointStats.endpoint.name);
+			scheduler.setDaemon(true);
+			scheduler.start();
+			schedulers.add(scheduler);
+		}
+		for (Thread scheduler : schedulers) {
+			scheduler.join();
+		}
+		// Let the requests still in flight finish so their latencies land in the histograms.
+		if (!inFlight.tryAcquire(maxInFlight, REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+			System.err.println((maxInFlight - inFlight.availablePermits()) + " requests were still outstanding at the end of the run");
+		}
+		return new ArrayList<>(stats.values());
+	}
+
+	void schedule(EndpointStats endpointStats, long start, long measureFrom, long end) {
+		Random random = new Random(endpointStats.endpoint.ordinal());
+		double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / endpointStats.targetRate;
+		long intended = start;
+		while (true) {
+			intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+			if (intended >= end) {
+				return;
+			}
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			fire(endpointStats, intended, intended >= measureFrom);
+		}
+	}
+
+	// Warmup arrivals load the server like any other but are left out of the statistics.
+	void fire(EndpointStats endpointStats, long intended, boolean measured) {
+		if (!inFlight.tryAcquire()) {
+			if (measured) {
+				endpointStats.dropped();
+			}
+			return;
+		}
+		HttpRequest request = request(endpointStats.endpoint);
+		if (request == null) {
+			inFlight.release();
+			if (measured) {
+				endpointStats.skipped();
+			}
+			return;
+		}
+		client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, ex) -> {
+			try {
+				if (measured) {
+					endpointStats.record(System.nanoTime() - intended, ex == null ? response.statusCode() : 0);
+				}
+				if (ex == null && endpointStats.endpoint == Endpoint.CREATE && response.statusCode() < 300) {
+					ids.add(mapper.readTree(response.body()).path("id").asInt());
+				}
+			}
+			catch (IOException parseEx) {
+				// The create itself succeeded and was recorded; its id just can't be reused.
+			}
+			finally {
+				inFlight.release();
+			}
+		});
+	}
+
+	// Returns null when the endpoint needs an existing student and none is left.
+	HttpRequest request(Endpoint endpoint) {
+		int id;
+		switch (endpoint) {
+			case LIST:
+				return builder("/api/student" + (listQuery.isEmpty() ? "" : "?" + listQuery)).GET().build();
+			case GET:
+				id = ids.pick();
+				return id < 0 ? null : builder("/api/student/" + id).GET().build();
+			case CREATE:
+				return builder("/api/student").header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofByteArray(body())).build();
+			case UPDATE:
+				id = ids.pick();
+				return id < 0 ? null : builder("/api/student/" + id).header("Content-Type", "application/json")
+						.PUT(HttpRequest.BodyPublishers.ofByteArray(body())).build();
+			case DELETE:
+				id = ids.take();
+				return id < 0 ? null : builder("/api/student/" + id).DELETE().build();
+			default:
+				throw new IllegalArgumentException("Unsupported endpoint " + endpoint);
+		}
+	}
+
+	HttpRequest.Builder builder(String path) {
+		return HttpRequest.newBuilder(URI.create(url + path)).timeout(REQUEST_TIMEOUT);
+	}
+
+	byte[] body() {
+		try {
+			return mapper.writeValueAsBytes(students.student(sequence.getAndIncrement()));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.gabriel.studms.reactive;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+// Same /api/student contract as sbstudms on WebFlux and R2DBC: requests are served by the Netty event
+// loops and never park a thread on the database, so slow clients cost connections rather than threads.
+@SpringBootApplication
+public class StudentReactiveApplication {
+	public static void main(String[] args)
+	{
+		SpringApplication.run(StudentReactiveApplication.class, args);
+	}
+}
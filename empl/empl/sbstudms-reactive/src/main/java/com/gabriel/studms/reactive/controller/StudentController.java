@@ -0,0 +1,203 @@
+package com.gabriel.studms.reactive.controller;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentPatch;
+import com.gabriel.studms.reactive.service.ReactiveStudentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+@RestController
+@CrossOrigin(origins = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS},
+		exposedHeaders = {StudentController.TOTAL_COUNT_HEADER, StudentController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
+public class StudentController {
+	static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+	static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	Logger logger = LoggerFactory.getLogger( StudentController.class);
+	@Autowired
+	private ReactiveStudentService studentService;
+	@Autowired
+	private ObjectMapper objectMapper;
+	// Without paging parameters the list is streamed off the database cursor, with backpressure: as
+	// one student per line for Accept: application/x-ndjson, otherwise as a JSON array written one
+	// element at a time. The array is built here because Jackson's encoder collects a Flux into a
+	// list before writing it as application/json.
+@GetMapping("/api/student")
+	public Mono<ResponseEntity<?>> listStudent(@RequestParam(required = false) String after,
+			@RequestParam(required = false) Integer limit, @RequestParam(required = false) String sort, ServerWebExchange exchange)
+{
+		return studentService.getListVersion()
+				.flatMap(version -> {
+					// Weak, like sbstudms: it names the content rather than the bytes.
+					String etag = "W/\"" + version.getCount() + "-" + version.getMaxId() + "-" + version.getVersionSum()
+							+ "-" + time(version.getLastModified())
+							+ "-" + Integer.toHexString(Objects.hash(after, limit, sort)) + "\"";
+					if (notModified(exchange, etag, version.getLastModified())) {
+						return Mono.<ResponseEntity<?>>just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+					}
+					if (after == null && limit == null && sort == null) {
+						Flux<Student> students = studentService.getAll();
+						if (exchange.getRequest().getHeaders().getAccept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)) {
+							return Mono.<ResponseEntity<?>>just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(students));
+						}
+						// Written here: a Flux<DataBuffer> inside ResponseEntity<?> would reach Jackson as plain objects.
+						ServerHttpResponse response = exchange.getResponse();
+						response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+						return response.writeWith(jsonArray(students, response.bufferFactory())).then(Mono.<ResponseEntity<?>>empty());
+					}
+					return studentService.getPage(after, limit, sort).<ResponseEntity<?>>map(page -> {
+						HttpHeaders headers = new HttpHeaders();
+						headers.add(TOTAL_COUNT_HEADER, Long.toString(page.getTotalCount()));
+						if (page.getNextCursor() != null) {
+							headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+						}
+						return ResponseEntity.ok().headers(headers).body(page.getStudents());
+					});
+				})
+				.onErrorResume(this::failed);
+	}
+@GetMapping(value = "/api/student/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<Student> export(){
+		logger.info("Export >> started");
+		return studentService.getAll()
+				.doOnError(ex -> logger.error("Export failed : {}", ex.getMessage(), ex));
+	}
+@PostMapping("/api/student")
+	public Mono<ResponseEntity<?>> add(@RequestBody Student student){
+		logger.debug("Input >> {}", student);
+		return studentService.create(student)
+				.<ResponseEntity<?>>map(ResponseEntity::ok)
+				.onErrorResume(ex -> {
+					logger.error("Failed to create student : {}", ex.getMessage(), ex);
+					return failed(ex);
+				});
+	}
+// Same semantics as sbstudms: the version read comes from If-Match or the body, and a stale one is
+// 412 or 409 respectively; If-Match: *, or a body without a version, overwrites unconditionally.
+@PutMapping("/api/student/{id}")
+	public Mono<ResponseEntity<?>> update(@PathVariable final Integer id, @RequestBody Student student,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		logger.debug("Input >> {}", student);
+		student.setId(id);
+		Integer version = ifMatch == null ? student.getVersion()
+				: "*".equals(ifMatch.trim()) ? null : Integer.valueOf(version(id, ifMatch));
+		return studentService.update(student, version)
+				.<ResponseEntity<?>>map(newStudent -> ResponseEntity.ok().eTag(etag(id, newStudent.getVersion())).body(newStudent))
+				.defaultIfEmpty(ResponseEntity.ok().build())
+				.onErrorResume(OptimisticLockingFailureException.class, ex -> Mono.just(
+						ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+								.body("Student " + id + " has been changed since that version")))
+				.onErrorResume(this::failed);
+	}
+// Same semantics as sbstudms: only the fields in the body change, in one UPDATE, and a stale version
+// from If-Match or the body is 412 or 409 respectively.
+@PatchMapping(value = "/api/student/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+	public Mono<ResponseEntity<?>> patch(@PathVariable final Integer id, @RequestBody Map<String, Object> body,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		logger.debug("Input >> {}", body);
+		return Mono.fromCallable(() -> {
+					StudentPatch patch = StudentPatch.of(body);
+					return ifMatch != null && !"*".equals(ifMatch.trim()) ? patch.withVersion(version(id, ifMatch)) : patch;
+				})
+				.flatMap(patch -> studentService.patch(id, patch).<ResponseEntity<?>>map(patched -> {
+					if (!patched) {
+						return ResponseEntity.notFound().build();
+					}
+					if (patch.getVersion() != null) {
+						return ResponseEntity.noContent().eTag(etag(id, patch.getVersion() + 1)).build();
+					}
+					return ResponseEntity.noContent().build();
+				}))
+				.onErrorResume(OptimisticLockingFailureException.class, ex -> Mono.just(
+						ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+								.body("Student " + id + " has been changed since that version")))
+				.onErrorResume(this::failed);
+	}
+@GetMapping("/api/student/{id}")
+	public Mono<ResponseEntity<?>> get(@PathVariable final Integer id, ServerWebExchange exchange){
+		logger.debug("Input student id >> {}", id);
+		return studentService.get(id)
+				.<ResponseEntity<?>>map(student -> {
+					if (notModified(exchange, etag(id, student.getVersion()), student.getLastUpdated())) {
+						return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+					}
+					return ResponseEntity.ok(student);
+				})
+				.defaultIfEmpty(ResponseEntity.ok().build())
+				.onErrorResume(this::failed);
+	}
+@DeleteMapping("/api/student/{id}")
+	public Mono<ResponseEntity<?>> delete(@PathVariable final Integer id){
+		logger.debug("Input >> {}", id);
+		return studentService.delete(id)
+				.then(Mono.<ResponseEntity<?>>just(ResponseEntity.ok().build()))
+				.onErrorResume(this::failed);
+	}
+	// "[", the students separated by commas, "]", each written as soon as its row arrives.
+	private Flux<DataBuffer> jsonArray(Flux<Student> students, DataBufferFactory bufferFactory) {
+		Flux<DataBuffer> elements = students.index().handle((element, sink) -> {
+			try {
+				byte[] json = objectMapper.writeValueAsBytes(element.getT2());
+				DataBuffer buffer = bufferFactory.allocateBuffer(json.length + 1);
+				if (element.getT1() > 0) {
+					buffer.write((byte) ',');
+				}
+				sink.next(buffer.write(json));
+			}
+			catch (JsonProcessingException ex) {
+				sink.error(ex);
+			}
+		});
+		return Flux.concat(Mono.fromSupplier(() -> bufferFactory.wrap(new byte[] {'['})), elements,
+				Mono.fromSupplier(() -> bufferFactory.wrap(new byte[] {']'})));
+	}
+	private Mono<ResponseEntity<?>> failed(Throwable ex) {
+		HttpStatus status = ex instanceof IllegalArgumentException ? HttpStatus.BAD_REQUEST
+				: ex instanceof OptimisticLockingFailureException ? HttpStatus.CONFLICT : HttpStatus.INTERNAL_SERVER_ERROR;
+		return Mono.just(ResponseEntity.status(status).body(ex.getMessage()));
+	}
+	// Sets the validators on the response and reports whether the request's If-None-Match or
+	// If-Modified-Since already matches them; the 304 status is set by checkNotModified.
+	private boolean notModified(ServerWebExchange exchange, String etag, Date lastModified) {
+		exchange.getResponse().getHeaders().setCacheControl(CacheControl.noCache());
+		return exchange.checkNotModified(etag, lastModified == null ? Instant.EPOCH : lastModified.toInstant());
+	}
+	// Strong ETag of one student, "<id>-v<version>", which PATCH takes back as If-Match.
+	static String etag(int id, int version) {
+		return "\"" + id + "-v" + version + "\"";
+	}
+	// The version named by an If-Match of this student; anything else maps to a version no row has.
+	static int version(int id, String ifMatch) {
+		String prefix = "\"" + id + "-v";
+		String tag = ifMatch.trim();
+		if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+			try {
+				return Integer.parseInt(tag.substring(prefix.length(), tag.length() - 1));
+			}
+			catch (NumberFormatException ex) {
+				return -1;
+			}
+		}
+		return -1;
+	}
+	private static long time(Date date) {
+		return date == null ? -1 : date.getTime();
+	}
+}
@@ -0,0 +1,35 @@
+package com.gabriel.studms.reactive.entity;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import java.time.LocalDateTime;
+
+// stud_db as sbstudms maps it. Hibernate keeps the field names as column names, so each column is
+// named explicitly instead of going through R2DBC's snake_case default.
+@Data
+@Table("stud_db")
+public class StudentRow {
+    @Id
+    @Column("id")
+    private int id;
+    @Column("firstName")
+    private String firstName;
+    @Column("lastName")
+    private String lastName;
+    @Column("studentNumber")
+    private String studentNumber;
+    @Column("email")
+    private String email;
+    @Column("department")
+    private String department;
+    @Column("lastUpdated")
+    private LocalDateTime lastUpdated;
+    @Column("created")
+    private LocalDateTime created;
+    // Boxed so inserts start it at 0 as Hibernate does; a primitive would start at 1.
+    @Version
+    @Column("version")
+    private Integer version;
+}
@@ -0,0 +1,59 @@
+package com.gabriel.studms.reactive.repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+// Hands out ids the way sbstudms' pooled-lo generator does, from the same hibernate_sequence, so both
+// services can write stud_db side by side: each round trip reserves INCREMENT_SIZE ids starting at
+// the value read. H2 backs it with a real sequence, MySQL with Hibernate's single row table.
+@Component
+public class StudentIdAllocator {
+	static final int INCREMENT_SIZE = 50;
+	Logger logger = LoggerFactory.getLogger(StudentIdAllocator.class);
+	@Autowired
+	DatabaseClient databaseClient;
+	private int next;
+	private int limit;
+
+	public Mono<Integer> nextId() {
+		return Mono.defer(() -> {
+			Integer id = take();
+			return id != null ? Mono.just(id) : reserveBlock().map(this::take);
+		});
+	}
+
+	synchronized Integer take() {
+		return next < limit ? next++ : null;
+	}
+
+	// Concurrent callers may each reserve a block; the later ones replace nothing and just leave a gap.
+	synchronized int take(int lo) {
+		if (next >= limit) {
+			next = lo;
+			limit = lo + INCREMENT_SIZE;
+		}
+		return next++;
+	}
+
+	Mono<Integer> reserveBlock() {
+		if (databaseClient.getConnectionFactory().getMetadata().getName().contains("H2")) {
+			return databaseClient.sql("select next value for hibernate_sequence")
+					.map(row -> row.get(0, Long.class).intValue())
+					.one();
+		}
+		return databaseClient.sql("select next_val from hibernate_sequence")
+				.map(row -> row.get(0, Long.class))
+				.one()
+				.flatMap(lo -> databaseClient.sql("update hibernate_sequence set next_val = :next where next_val = :lo")
+						.bind("next", lo + INCREMENT_SIZE)
+						.bind("lo", lo)
+						.fetch()
+						.rowsUpdated()
+						.flatMap(updated -> updated == 1 ? Mono.just(lo.intValue()) : Mono.empty()))
+				// Another writer moved the row between the read and the update; read it again.
+				.repeatWhenEmpty(attempts -> attempts.doOnNext(attempt -> logger.debug(" reserveBlock: retry {}", attempt)));
+	}
+}
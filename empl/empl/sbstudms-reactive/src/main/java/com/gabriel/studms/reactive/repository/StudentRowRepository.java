@@ -0,0 +1,10 @@
+package com.gabriel.studms.reactive.repository;
+import com.gabriel.studms.reactive.entity.StudentRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
+public interface StudentRowRepository extends ReactiveCrudRepository<StudentRow, Integer> {
+	@Query("select * from stud_db order by id")
+	Flux<StudentRow> streamAll();
+}
@@ -0,0 +1,17 @@
+package com.gabriel.studms.reactive.service;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentListVersion;
+import com.gabriel.studms.model.StudentPage;
+import com.gabriel.studms.model.StudentPatch;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+public interface ReactiveStudentService {
+	Flux<Student> getAll();
+	Mono<StudentListVersion> getListVersion();
+	Mono<StudentPage> getPage(String after, Integer limit, String sort);
+	Mono<Student> get(Integer id);
+	Mono<Student> create(Student student);
+	Mono<Student> update(Student student, Integer version);
+	Mono<Boolean> patch(Integer id, StudentPatch patch);
+	Mono<Void> delete(Integer id);
+}
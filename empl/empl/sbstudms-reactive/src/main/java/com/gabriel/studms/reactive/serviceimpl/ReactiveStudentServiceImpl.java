@@ -0,0 +1,240 @@
+package com.gabriel.studms.reactive.serviceimpl;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentListVersion;
+import com.gabriel.studms.model.StudentPage;
+import com.gabriel.studms.model.StudentPatch;
+import com.gabriel.studms.reactive.entity.StudentRow;
+import com.gabriel.studms.reactive.repository.StudentIdAllocator;
+import com.gabriel.studms.reactive.repository.StudentRowRepository;
+import com.gabriel.studms.reactive.service.ReactiveStudentService;
+import com.gabriel.studms.reactive.transform.TransformStudentRowService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ReactiveStudentServiceImpl implements ReactiveStudentService {
+	Logger logger = LoggerFactory.getLogger(ReactiveStudentServiceImpl.class);
+	@Autowired
+	StudentRowRepository studentRowRepository;
+	@Autowired
+	StudentIdAllocator studentIdAllocator;
+	@Autowired
+	TransformStudentRowService transformStudentRowService;
+	@Autowired
+	R2dbcEntityTemplate r2dbcEntityTemplate;
+	@Autowired
+	DatabaseClient databaseClient;
+	@Value("${student.page.default-limit:50}")
+	int defaultPageLimit;
+	@Value("${student.page.max-limit:500}")
+	int maxPageLimit;
+	@Value("${student.stream.prefetch:256}")
+	int streamPrefetch;
+	static final Set<String> SORT_FIELDS = Set.of("id", "lastName", "firstName");
+	@Override
+public Flux<Student> getAll() {
+		// Rows are requested from the driver only as fast as the client drains the response, at most
+		// streamPrefetch ahead of it, so a slow reader never buffers the table in memory.
+		return studentRowRepository.streamAll()
+				.limitRate(streamPrefetch)
+				.map(transformStudentRowService::transform);
+	}
+	@Override
+public Mono<StudentListVersion> getListVersion() {
+		return databaseClient.sql("select count(*) as total, max(lastUpdated) as lastModified,"
+						+ " coalesce(max(id), 0) as maxId, coalesce(sum(version), 0) as versionSum,"
+						+ " (select max(deleted) from stud_tombstone) as lastDeleted from stud_db")
+				.map(row -> {
+					StudentListVersion version = new StudentListVersion(row.get("total", Long.class),
+							TransformStudentRowService.date(row.get("lastModified", LocalDateTime.class)),
+							row.get("maxId", Integer.class), row.get("versionSum", Long.class));
+					version.includeLastDeleted(TransformStudentRowService.date(row.get("lastDeleted", LocalDateTime.class)));
+					return version;
+				})
+				.one();
+	}
+	@Override
+public Mono<StudentPage> getPage(String after, Integer limit, String sort) {
+		return Mono.defer(() -> {
+			String sortField = "id";
+			boolean descending = false;
+			if (sort != null && !sort.isBlank()) {
+				String[] parts = sort.split(",");
+				sortField = parts[0].trim();
+				descending = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim());
+			}
+			if (!SORT_FIELDS.contains(sortField)) {
+				return Mono.error(new IllegalArgumentException("Unsupported sort field: " + sortField));
+			}
+			int pageSize = limit == null ? defaultPageLimit : Math.min(Math.max(limit, 1), maxPageLimit);
+			String[] cursor = decodeCursor(after);
+
+			Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+			Sort order = "id".equals(sortField) ? Sort.by(direction, "id") : Sort.by(direction, sortField, "id");
+			Criteria criteria = Criteria.empty();
+			if (cursor != null) {
+				int afterId = Integer.parseInt(cursor[0]);
+				String afterValue = cursor.length > 2 ? cursor[2] : null;
+				Criteria idAfter = descending ? Criteria.where("id").lessThan(afterId) : Criteria.where("id").greaterThan(afterId);
+				// NULL sort values order first ascending and last descending, as in sbstudms' findPageAfter.
+				if ("id".equals(sortField)) {
+					criteria = idAfter;
+				}
+				else if (afterValue == null) {
+					Criteria sameNull = Criteria.where(sortField).isNull().and(idAfter);
+					criteria = descending ? sameNull : sameNull.or(Criteria.where(sortField).isNotNull());
+				}
+				else {
+					Criteria sameValue = Criteria.where(sortField).is(afterValue).and(idAfter);
+					criteria = descending
+							? Criteria.where(sortField).lessThan(afterValue).or(sameValue).or(Criteria.where(sortField).isNull())
+							: Criteria.where(sortField).greaterThan(afterValue).or(sameValue);
+				}
+			}
+			Mono<Long> totalCount = cursor != null ? Mono.just(Long.parseLong(cursor[1])) : studentRowRepository.count();
+			String field = sortField;
+			Mono<Student[]> students = r2dbcEntityTemplate.select(StudentRow.class)
+					.matching(Query.query(criteria).sort(order).limit(pageSize))
+					.all()
+					.map(transformStudentRowService::transform)
+					.collectList()
+					.map(list -> list.toArray(new Student[0]));
+			return Mono.zip(totalCount, students).map(result -> {
+				StudentPage page = new StudentPage();
+				page.setStudents(result.getT2());
+				page.setTotalCount(result.getT1());
+				if (result.getT2().length == pageSize) {
+					Student last = result.getT2()[pageSize - 1];
+					String value = null;
+					if (!"id".equals(field)) {
+						value = "lastName".equals(field) ? last.getLastName() : last.getFirstName();
+					}
+					page.setNextCursor(encodeCursor(last.getId(), result.getT1(), value));
+				}
+				return page;
+			});
+		});
+	}
+	// Same cursor format as sbstudms, "<lastId>|<totalCount>[|<lastSortValue>]", so clients can move
+	// between the two services.
+	static String encodeCursor(int lastId, long totalCount, String lastValue) {
+		String cursor = lastId + "|" + totalCount + (lastValue == null ? "" : "|" + lastValue);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+	}
+	static String[] decodeCursor(String after) {
+		if (after == null || after.isEmpty()) {
+			return null;
+		}
+		try {
+			String[] cursor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).split("\\|", 3);
+			Integer.parseInt(cursor[0]);
+			Long.parseLong(cursor[1]);
+			return cursor;
+		}
+		catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+			throw new IllegalArgumentException("Invalid cursor: " + after);
+		}
+	}
+	@Override
+public Mono<Student> get(Integer id) {
+		logger.debug(" Input id >> {}", id);
+		return studentRowRepository.findById(id).map(transformStudentRowService::transform);
+	}
+	@Override
+public Mono<Student> create(Student student) {
+		StudentRow studentRow = transformStudentRowService.transform(student);
+		LocalDateTime now = LocalDateTime.now();
+		studentRow.setCreated(now);
+		studentRow.setLastUpdated(now);
+		// The id is assigned before the insert, so the row goes through insert rather than save,
+		// which would take a non-zero id for an existing row.
+		return studentIdAllocator.nextId()
+				.flatMap(id -> {
+					studentRow.setId(id);
+					return r2dbcEntityTemplate.insert(studentRow);
+				})
+				.map(transformStudentRowService::transform);
+	}
+	@Override
+public Mono<Student> update(Student student, Integer version) {
+		return studentRowRepository.findById(student.getId())
+				.flatMap(studentRow -> {
+					// A write between the read and the save is caught by @Version on the row.
+					if (version != null && !version.equals(studentRow.getVersion())) {
+						return Mono.error(new OptimisticLockingFailureException("Student " + student.getId() + " has been changed since that version"));
+					}
+					studentRow.setFirstName(student.getFirstName());
+					studentRow.setLastName(student.getLastName());
+					studentRow.setStudentNumber(student.getStudentNumber());
+					studentRow.setEmail(student.getEmail());
+					studentRow.setDepartment(student.getDepartment());
+					studentRow.setLastUpdated(LocalDateTime.now());
+					return studentRowRepository.save(studentRow);
+				})
+				.map(transformStudentRowService::transform)
+				.switchIfEmpty(Mono.fromRunnable(() -> logger.error(" Failed >> unable to locate student id: {}", student.getId())));
+	}
+	@Override
+public Mono<Boolean> patch(Integer id, StudentPatch patch) {
+		// One UPDATE naming only the changed columns, a compare-and-set on version when one is given.
+		StringBuilder sql = new StringBuilder("update stud_db set version = version + 1, lastUpdated = :lastUpdated");
+		for (String field : patch.getChanges().keySet()) {
+			sql.append(", ").append(field).append(" = :").append(field);
+		}
+		sql.append(" where id = :id");
+		if (patch.getVersion() != null) {
+			sql.append(" and version = :version");
+		}
+		DatabaseClient.GenericExecuteSpec update = databaseClient.sql(sql.toString())
+				.bind("lastUpdated", LocalDateTime.now())
+				.bind("id", id);
+		for (Map.Entry<String, String> change : patch.getChanges().entrySet()) {
+			update = change.getValue() == null
+					? update.bindNull(change.getKey(), String.class)
+					: update.bind(change.getKey(), change.getValue());
+		}
+		if (patch.getVersion() != null) {
+			update = update.bind("version", patch.getVersion());
+		}
+		return update.fetch().rowsUpdated()
+				.flatMap(updated -> {
+					if (updated > 0) {
+						return Mono.just(true);
+					}
+					if (patch.getVersion() == null) {
+						return Mono.just(false);
+					}
+					return studentRowRepository.existsById(id).flatMap(exists -> exists
+							? Mono.error(new OptimisticLockingFailureException("Student " + id + " has been changed since version " + patch.getVersion()))
+							: Mono.just(false));
+				});
+	}
+	@Override
+	@Transactional
+public Mono<Void> delete(Integer id) {
+		logger.debug(" Input >> {}", id);
+		// Same tombstone sbstudms writes, so its delta endpoint also reports deletes made through this service.
+		return databaseClient.sql("insert into stud_tombstone (studentId, deleted) select id, :deleted from stud_db where id = :id")
+				.bind("deleted", LocalDateTime.now())
+				.bind("id", id)
+				.fetch().rowsUpdated()
+				.then(studentRowRepository.deleteById(id));
+	}
+}
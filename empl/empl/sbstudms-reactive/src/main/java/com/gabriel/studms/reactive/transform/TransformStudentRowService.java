@@ -0,0 +1,41 @@
+package com.gabriel.studms.reactive.transform;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.reactive.entity.StudentRow;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+@Service
+public class TransformStudentRowService {
+	public StudentRow transform(Student student){
+		StudentRow studentRow = new StudentRow();
+		if (student.getId() > 0) {
+			studentRow.setId(student.getId());
+		}
+		studentRow.setFirstName(student.getFirstName());
+		studentRow.setLastName(student.getLastName());
+		studentRow.setStudentNumber(student.getStudentNumber());
+		studentRow.setEmail(student.getEmail());
+		studentRow.setDepartment(student.getDepartment());
+		return studentRow;
+	}
+
+	public Student transform(StudentRow studentRow){
+		Student student = new Student();
+		student.setId(studentRow.getId());
+		student.setFirstName(studentRow.getFirstName());
+		student.setLastName(studentRow.getLastName());
+		student.setStudentNumber(studentRow.getStudentNumber());
+		student.setEmail(studentRow.getEmail());
+		student.setDepartment(studentRow.getDepartment());
+		student.setCreated(date(studentRow.getCreated()));
+		student.setLastUpdated(date(studentRow.getLastUpdated()));
+		student.setVersion(studentRow.getVersion() == null ? 0 : studentRow.getVersion());
+		return student;
+	}
+
+	// Hibernate writes the timestamps in the JVM's zone, so they are read back in it too.
+	public static Date date(LocalDateTime time) {
+		return time == null ? null : Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+	}
+}
@@ -0,0 +1,27 @@
+-- stud_db, stud_tombstone and hibernate_sequence as sbstudms' Hibernate mapping creates them on H2.
+create sequence if not exists hibernate_sequence start with 1 increment by 50;
+create table if not exists stud_db (
+    id integer not null,
+    created timestamp,
+    department varchar(255),
+    email varchar(255),
+    firstName varchar(255),
+    lastName varchar(255),
+    lastUpdated timestamp,
+    studentNumber varchar(255),
+    version integer default 0 not null,
+    primary key (id)
+);
+create index if not exists idx_stud_last_name on stud_db (lastName, id);
+create index if not exists idx_stud_first_name on stud_db (firstName, id);
+create index if not exists idx_stud_student_number on stud_db (studentNumber);
+create index if not exists idx_stud_email on stud_db (email);
+create index if not exists idx_stud_department on stud_db (department, id);
+create index if not exists idx_stud_last_updated on stud_db (lastUpdated, id);
+create index if not exists idx_stud_list_version on stud_db (version, lastUpdated);
+create table if not exists stud_tombstone (
+    studentId integer not null,
+    deleted timestamp,
+    primary key (studentId)
+);
+create index if not exists idx_stud_tombstone_deleted on stud_tombstone (deleted);
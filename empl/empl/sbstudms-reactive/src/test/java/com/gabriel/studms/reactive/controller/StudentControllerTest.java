@@ -0,0 +1,220 @@
+package com.gabriel.studms.reactive.controller;
+import com.gabriel.studms.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.r2dbc.url=r2dbc:h2:mem:///controller_test;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureWebTestClient
+@ActiveProfiles("h2")
+class StudentControllerTest {
+	static final int STUDENTS = 7;
+	@Autowired
+	WebTestClient webTestClient;
+	@Autowired
+	DatabaseClient databaseClient;
+
+	@BeforeEach
+	void createStudents() {
+		databaseClient.sql("delete from stud_db").fetch().rowsUpdated().block();
+		for (int i = 0; i < STUDENTS; i++) {
+			webTestClient.post().uri("/api/student")
+					.bodyValue(new Student(0, "First" + i, "Last" + i, "N" + i, "s" + i + "@x", "CS", null, null, 0))
+					.exchange()
+					.expectStatus().isOk();
+		}
+	}
+
+	@Test
+	void keysetPagesCoverEveryStudentOnce() {
+		List<Integer> ids = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			String uri = "/api/student?limit=3" + (cursor == null ? "" : "&after=" + cursor);
+			EntityExchangeResult<List<Student>> page = webTestClient.get().uri(uri)
+					.exchange()
+					.expectStatus().isOk()
+					.expectHeader().valueEquals(StudentController.TOTAL_COUNT_HEADER, Integer.toString(STUDENTS))
+					.expectBodyList(Student.class)
+					.returnResult();
+			page.getResponseBody().forEach(student -> ids.add(student.getId()));
+			cursor = page.getResponseHeaders().getFirst(StudentController.NEXT_CURSOR_HEADER);
+			pages++;
+		}
+		while (cursor != null && pages < 10);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(ids).hasSize(STUDENTS).doesNotHaveDuplicates().isSorted();
+	}
+
+	@Test
+	void keysetPagesSortedByNameIncludeNullNames() {
+		for (int i = 0; i < 3; i++) {
+			webTestClient.post().uri("/api/student")
+					.bodyValue(new Student(0, null, null, "X" + i, "x" + i + "@x", "CS", null, null, 0))
+					.exchange()
+					.expectStatus().isOk();
+		}
+		for (String sort : new String[] {"lastName", "lastName,desc", "firstName", "firstName,desc"}) {
+			List<Student> students = new ArrayList<>();
+			String cursor = null;
+			int pages = 0;
+			do {
+				String uri = "/api/student?limit=2&sort=" + sort + (cursor == null ? "" : "&after=" + cursor);
+				EntityExchangeResult<List<Student>> page = webTestClient.get().uri(uri)
+						.exchange()
+						.expectStatus().isOk()
+						.expectBodyList(Student.class)
+						.returnResult();
+				students.addAll(page.getResponseBody());
+				cursor = page.getResponseHeaders().getFirst(StudentController.NEXT_CURSOR_HEADER);
+				pages++;
+			}
+			while (cursor != null && pages < 20);
+
+			assertThat(students).as(sort).hasSize(STUDENTS + 3);
+			assertThat(students).as(sort).extracting(Student::getId).doesNotHaveDuplicates();
+			List<String> names = students.stream()
+					.map(student -> sort.startsWith("lastName") ? student.getLastName() : student.getFirstName())
+					.collect(Collectors.toList());
+			// NULLs first ascending and last descending, the way the database orders them.
+			boolean descending = sort.endsWith("desc");
+			assertThat(descending ? names.subList(STUDENTS, STUDENTS + 3) : names.subList(0, 3)).as(sort).containsOnlyNulls();
+		}
+	}
+
+	@Test
+	void jsonListIsOneArrayWithAWeakEtag() {
+		List<Student> students = webTestClient.get().uri("/api/student")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+				.expectHeader().value(HttpHeaders.ETAG, etag -> assertThat(etag).startsWith("W/\""))
+				.expectBodyList(Student.class)
+				.returnResult()
+				.getResponseBody();
+		assertThat(students).extracting(Student::getStudentNumber)
+				.containsExactlyElementsOf(IntStream.range(0, STUDENTS).mapToObj(i -> "N" + i).collect(Collectors.toList()));
+
+		databaseClient.sql("delete from stud_db").fetch().rowsUpdated().block();
+		webTestClient.get().uri("/api/student")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("[]");
+	}
+
+	@Test
+	void ndjsonStreamsOneStudentPerLine() {
+		String body = webTestClient.get().uri("/api/student")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.expectBody(String.class)
+				.returnResult()
+				.getResponseBody();
+
+		List<String> lines = body.lines().filter(line -> !line.isBlank()).collect(Collectors.toList());
+		assertThat(lines).hasSize(STUDENTS).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+		assertThat(lines.get(0)).contains("\"firstName\":\"First0\"");
+
+		List<Student> students = webTestClient.get().uri("/api/student")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.returnResult(Student.class)
+				.getResponseBody()
+				.collectList()
+				.block();
+		assertThat(students).extracting(Student::getStudentNumber)
+				.containsExactlyElementsOf(IntStream.range(0, STUDENTS).mapToObj(i -> "N" + i).collect(Collectors.toList()));
+	}
+
+	@Test
+	void listEtagChangesWithAnUpdate() {
+		String etag = webTestClient.get().uri("/api/student?limit=3")
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(String.class)
+				.getResponseHeaders().getETag();
+		webTestClient.get().uri("/api/student?limit=3")
+				.header(HttpHeaders.IF_NONE_MATCH, etag)
+				.exchange()
+				.expectStatus().isNotModified();
+
+		Student student = firstStudent();
+		student.setFirstName("Changed");
+		webTestClient.put().uri("/api/student/" + student.getId())
+				.bodyValue(student)
+				.exchange()
+				.expectStatus().isOk();
+		webTestClient.get().uri("/api/student?limit=3")
+				.header(HttpHeaders.IF_NONE_MATCH, etag)
+				.exchange()
+				.expectStatus().isOk();
+	}
+
+	@Test
+	void staleVersionIsRejected() {
+		Student student = firstStudent();
+		student.setFirstName("Once");
+		webTestClient.put().uri("/api/student/" + student.getId())
+				.bodyValue(student)
+				.exchange()
+				.expectStatus().isOk();
+
+		// Same body again: its version is now one behind the row.
+		webTestClient.put().uri("/api/student/" + student.getId())
+				.bodyValue(student)
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.CONFLICT);
+		webTestClient.put().uri("/api/student/" + student.getId())
+				.header(HttpHeaders.IF_MATCH, StudentController.etag(student.getId(), student.getVersion()))
+				.bodyValue(student)
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+		webTestClient.put().uri("/api/student/" + student.getId())
+				.header(HttpHeaders.IF_MATCH, "*")
+				.bodyValue(student)
+				.exchange()
+				.expectStatus().isOk();
+	}
+
+	@Test
+	void putWithoutVersionAlwaysApplies() {
+		int id = firstStudent().getId();
+		for (String name : new String[] {"One", "Two", "Three"}) {
+			webTestClient.put().uri("/api/student/" + id)
+					.contentType(MediaType.APPLICATION_JSON)
+					.bodyValue("{\"firstName\":\"" + name + "\",\"lastName\":\"L\"}")
+					.exchange()
+					.expectStatus().isOk()
+					.expectBody().jsonPath("$.firstName").isEqualTo(name);
+		}
+	}
+
+	Student firstStudent() {
+		return webTestClient.get().uri("/api/student?limit=1")
+				.exchange()
+				.expectBodyList(Student.class)
+				.returnResult()
+				.getResponseBody()
+				.get(0);
+	}
+}
@@ -0,0 +1,41 @@
+package com.gabriel.studms.reactive.repository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import java.util.HashSet;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two allocators stand in for two service instances sharing hibernate_sequence; callers racing across
+// block boundaries must never be handed the same id.
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///allocator_test;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class StudentIdAllocatorTest {
+	@Autowired
+	DatabaseClient databaseClient;
+
+	@Test
+	void concurrentCallersGetDistinctIds() {
+		StudentIdAllocator first = allocator();
+		StudentIdAllocator second = allocator();
+		int calls = 1000;
+		List<Integer> ids = Flux.range(0, calls)
+				.flatMap(i -> (i % 2 == 0 ? first : second).nextId().subscribeOn(Schedulers.parallel()), 64)
+				.collectList()
+				.block();
+
+		assertThat(ids).hasSize(calls);
+		assertThat(new HashSet<>(ids)).hasSize(calls);
+		assertThat(ids).allMatch(id -> id > 0);
+	}
+
+	StudentIdAllocator allocator() {
+		StudentIdAllocator allocator = new StudentIdAllocator();
+		allocator.databaseClient = databaseClient;
+		return allocator;
+	}
+}
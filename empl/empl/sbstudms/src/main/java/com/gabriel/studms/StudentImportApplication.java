@@ -0,0 +1,29 @@
+package com.gabriel.studms;
+import com.gabriel.studms.importer.StudentImportService;
+import com.gabriel.studms.model.StudentImportReport;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.nio.file.Paths;
+
+// Command line bulk import: mvn exec:java -Dexec.mainClass=com.gabriel.studms.StudentImportApplication -Dexec.args=students.csv
+public class StudentImportApplication {
+	public static void main(String[] args) throws Exception
+	{
+		if (args.length < 1) {
+			System.err.println("Usage: StudentImportApplication <students.csv> [--spring.property=value ...]");
+			System.exit(2);
+		}
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentMSApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args);
+		StudentImportReport report = context.getBean(StudentImportService.class).importCsv(Paths.get(args[0]));
+		System.out.printf("Read %d rows: imported %d, rejected %d in %d ms (%.0f rows/s)%n", report.getRowsRead(),
+				report.getImported(), report.getRejected(), report.getElapsedMillis(), report.getRowsPerSecond());
+		for (StudentImportReport.Rejection rejection : report.getRejections()) {
+			System.out.println("  line " + rejection.getLine() + ": " + rejection.getReason());
+		}
+		System.exit(SpringApplication.exit(context) == 0 && report.getRejected() == 0 ? 0 : 1);
+	}
+}
@@ -1,8 +1,15 @@
 package com.gabriel.studms;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+// Outside the transaction advice (LOWEST_PRECEDENCE), so @CacheEvict on a @Transactional write runs
+// after the commit; evicting before it would let a concurrent read cache the old row again.
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableScheduling
 public class StudentMSApplication {
 	public static void main(String[] args)
 	{
@@ -0,0 +1,203 @@
+package com.gabriel.studms.changes;
+import com.gabriel.studms.model.StudentChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Changes published by StudentServiceImpl, delivered once their transaction has committed (or right
+// away when there was none) and kept in a ring buffer of the most recent ones for reconnecting clients.
+// Every change gets the token "<epoch>-<seq>": seq counts changes since this JVM started at epoch, so
+// a token from before a restart, or older than the buffer, can be told apart and answered with RELOAD.
+// SseEmitter.send is a blocking write, so each subscriber has its own bounded queue, drained by its
+// own writer task. A client that stops reading only stalls its own writer (until the servlet write
+// times out); once its queue is full it is disconnected and resumes from its last token on reconnect.
+// A write that fails on a writer thread races Tomcat's own error handling, which may already have
+// recycled the request's processor for a new connection and then has the writer close that one;
+// server.tomcat.processor-cache is 0 so a processor is never handed on.
+@Component
+public class StudentChangeFeed {
+	Logger logger = LoggerFactory.getLogger(StudentChangeFeed.class);
+	private final long epoch = System.currentTimeMillis();
+	private final StudentChange[] ring;
+	private long lastSeq;
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+	private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "student-changes-heartbeat");
+		thread.setDaemon(true);
+		return thread;
+	});
+	// Idle writer threads go away after a minute; there is at most one per subscriber with events queued.
+	private final ExecutorService writers = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "student-changes-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final long timeoutMillis;
+	private final int queueCapacity;
+
+	public StudentChangeFeed(@Value("${student.changes.buffer-size:10000}") int bufferSize,
+			@Value("${student.changes.timeout:30m}") Duration timeout,
+			@Value("${student.changes.heartbeat:30s}") Duration heartbeat,
+			@Value("${student.changes.subscriber-queue:256}") int queueCapacity) {
+		this.ring = new StudentChange[bufferSize];
+		this.timeoutMillis = timeout.toMillis();
+		this.queueCapacity = queueCapacity;
+		// A comment line now and then keeps idle connections open through proxies and finds dead clients.
+		heartbeats.scheduleWithFixedDelay(() -> subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat"))),
+				heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void append(StudentChange change) {
+		long seq = ++lastSeq;
+		change.setToken(token(seq));
+		ring[(int) (seq % ring.length)] = change;
+		subscribers.forEach(subscriber -> subscriber.offer(event(change)));
+	}
+
+	// Streams the changes after token, or after now when there is none. The replay and the
+	// registration happen under the append lock, so nothing is sent twice or lost in between.
+	public synchronized SseEmitter subscribe(String token) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		List<StudentChange> replay = token == null ? List.of() : changesAfter(token);
+		// Room for the whole replay on top of the live backlog a subscriber may fall behind by.
+		Subscriber subscriber = new Subscriber(emitter, queueCapacity + (replay == null ? 1 : replay.size()));
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(ex -> subscribers.remove(subscriber));
+		String current = token(lastSeq);
+		if (replay == null) {
+			StudentChange reload = new StudentChange(StudentChange.Type.RELOAD, 0, null);
+			reload.setToken(current);
+			subscriber.offer(event(reload));
+		}
+		else if (replay.isEmpty()) {
+			subscriber.offer(SseEmitter.event().id(current).name("open").data(current));
+		}
+		else {
+			replay.forEach(change -> subscriber.offer(event(change)));
+		}
+		subscribers.add(subscriber);
+		logger.debug(" subscribe: {} subscribers, resuming from {}", subscribers.size(), token);
+		return emitter;
+	}
+
+	// Changes after token, or null when they are no longer all in the buffer.
+	List<StudentChange> changesAfter(String token) {
+		long seq;
+		try {
+			int dash = token.indexOf('-');
+			if (Long.parseLong(token.substring(0, dash)) != epoch) {
+				return null;
+			}
+			seq = Long.parseLong(token.substring(dash + 1));
+		}
+		catch (RuntimeException ex) {
+			return null;
+		}
+		if (seq > lastSeq || seq < lastSeq - ring.length) {
+			return null;
+		}
+		List<StudentChange> changes = new ArrayList<>();
+		for (long next = seq + 1; next <= lastSeq; next++) {
+			changes.add(ring[(int) (next % ring.length)]);
+		}
+		return changes;
+	}
+
+	public int subscriberCount() {
+		return subscribers.size();
+	}
+
+	String token(long seq) {
+		return epoch + "-" + seq;
+	}
+
+	static SseEmitter.SseEventBuilder event(StudentChange change) {
+		return SseEmitter.event()
+				.id(change.getToken())
+				.name(change.getType().name().toLowerCase(Locale.ROOT))
+				.data(change);
+	}
+
+	@PreDestroy
+	public void close() {
+		heartbeats.shutdownNow();
+		writers.shutdownNow();
+		for (Subscriber subscriber : subscribers) {
+			try {
+				subscriber.emitter.complete();
+			}
+			catch (RuntimeException ex) {
+				// The connection is already gone; the container cleans it up on its own.
+				logger.debug(" close: {}", ex.toString());
+			}
+		}
+	}
+
+	// One client: the events waiting for it and whether a writer task is draining them.
+	class Subscriber {
+		final SseEmitter emitter;
+		final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+		final AtomicBoolean draining = new AtomicBoolean();
+
+		Subscriber(SseEmitter emitter, int capacity) {
+			this.emitter = emitter;
+			this.queue = new ArrayBlockingQueue<>(capacity);
+		}
+
+		void offer(SseEmitter.SseEventBuilder event) {
+			if (!queue.offer(event)) {
+				logger.debug(" subscriber fell {} events behind, disconnecting it", queue.size());
+				drop(new IOException("Change feed subscriber is too far behind"));
+				return;
+			}
+			if (draining.compareAndSet(false, true)) {
+				writers.execute(this::drain);
+			}
+		}
+
+		void drain() {
+			do {
+				SseEmitter.SseEventBuilder event;
+				while ((event = queue.poll()) != null) {
+					try {
+						emitter.send(event);
+					}
+					catch (IOException | IllegalStateException ex) {
+						// The client went away; completing releases the async request.
+						drop(ex);
+						return;
+					}
+				}
+				draining.set(false);
+				// An offer between the last poll and the reset above found draining still set.
+			}
+			while (!queue.isEmpty() && draining.compareAndSet(false, true));
+		}
+
+		void drop(Exception ex) {
+			if (subscribers.remove(this)) {
+				queue.clear();
+				emitter.completeWithError(ex);
+			}
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.gabriel.studms.changes;
+import com.gabriel.studms.repository.StudentTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Date;
+
+// Drops tombstones older than the retention; delta tokens from before then are answered with 410.
+@Component
+public class StudentTombstonePurger {
+	Logger logger = LoggerFactory.getLogger(StudentTombstonePurger.class);
+	@Autowired
+	StudentTombstoneRepository studentTombstoneRepository;
+	@Value("${student.delta.tombstone-retention:30d}")
+	Duration tombstoneRetention;
+
+	@Scheduled(fixedDelayString = "${student.delta.purge-interval:PT1H}", initialDelayString = "${student.delta.purge-interval:PT1H}")
+	public void purge() {
+		int purged = studentTombstoneRepository.deleteOlderThan(new Date(System.currentTimeMillis() - tombstoneRetention.toMillis()));
+		if (purged > 0) {
+			logger.info("Purged {} student tombstones", purged);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.gabriel.studms.controller;
+import com.gabriel.studms.jfr.StudentFlightRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+// On-demand JDK Flight Recorder control. Off unless student.jfr.admin-enabled is set, since it is
+// unauthenticated and a recording can be large.
+@RestController
+@ConditionalOnProperty(name = "student.jfr.admin-enabled", havingValue = "true")
+public class FlightRecorderController {
+	Logger logger = LoggerFactory.getLogger(FlightRecorderController.class);
+	@Autowired
+	private StudentFlightRecorder studentFlightRecorder;
+@GetMapping("/admin/jfr")
+	public ResponseEntity<?> status(){
+		ResponseEntity<?> response;
+		try {
+			response = ResponseEntity.ok(studentFlightRecorder.status());
+		}
+		catch( Exception ex)
+		{
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+@PostMapping("/admin/jfr/start")
+	public ResponseEntity<?> start(@RequestParam(required = false) String profile){
+		ResponseEntity<?> response;
+		try {
+			response = ResponseEntity.ok(studentFlightRecorder.start(profile));
+		}
+		catch( IllegalStateException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+		}
+		catch( ParseException | NoSuchFileException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Unknown JFR profile: " + profile);
+		}
+		catch( Exception ex)
+		{
+			logger.error("Failed to start flight recording : {}", ex.getMessage(), ex);
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+@PostMapping("/admin/jfr/stop")
+	public ResponseEntity<?> stop(){
+		ResponseEntity<?> response;
+		try {
+			response = ResponseEntity.ok(studentFlightRecorder.stop());
+		}
+		catch( IllegalStateException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+		}
+		catch( Exception ex)
+		{
+			logger.error("Failed to stop flight recording : {}", ex.getMessage(), ex);
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+@GetMapping("/admin/jfr/download")
+	public ResponseEntity<StreamingResponseBody> download(){
+		ResponseEntity<StreamingResponseBody> response;
+		try {
+			Path file = studentFlightRecorder.snapshot();
+			if (file == null) {
+				return ResponseEntity.notFound().build();
+			}
+			StreamingResponseBody body = out -> {
+				try {
+					Files.copy(file, out);
+				}
+				finally {
+					Files.deleteIfExists(file);
+				}
+			};
+			HttpHeaders headers = new HttpHeaders();
+			headers.setContentDisposition(ContentDisposition.attachment().filename("student.jfr").build());
+			headers.setContentLength(Files.size(file));
+			response = ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_OCTET_STREAM).body(body);
+		}
+		catch( Exception ex)
+		{
+			logger.error("Failed to download flight recording : {}", ex.getMessage(), ex);
+			String message = String.valueOf(ex.getMessage());
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.TEXT_PLAIN)
+					.body(out -> out.write(message.getBytes(StandardCharsets.UTF_8)));
+		}
+		return response;
+	}
+}
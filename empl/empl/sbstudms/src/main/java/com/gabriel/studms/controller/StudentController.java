@@ -1,27 +1,175 @@
 package com.gabriel.studms.controller;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gabriel.studms.changes.StudentChangeFeed;
+import com.gabriel.studms.importer.StudentImportService;
+import com.gabriel.studms.logging.PayloadLogSampler;
 import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentBatchResult;
+import com.gabriel.studms.model.StudentBulkResult;
+import com.gabriel.studms.model.StudentChange;
+import com.gabriel.studms.model.StudentDelta;
+import com.gabriel.studms.model.StudentDepartmentChange;
+import com.gabriel.studms.model.StudentImportReport;
+import com.gabriel.studms.model.StudentListVersion;
+import com.gabriel.studms.search.StudentSearchIndexLoader;
+import com.gabriel.studms.model.StudentPage;
+import com.gabriel.studms.model.StudentPatch;
 import com.gabriel.studms.service.StudentService;
+import com.gabriel.studms.serviceimpl.StudentServiceImpl;
+import com.gabriel.studms.timing.ServerTiming;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 @RestController
-@CrossOrigin(origins = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
+@CrossOrigin(origins = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS},
+		exposedHeaders = {StudentController.TOTAL_COUNT_HEADER, StudentController.NEXT_CURSOR_HEADER,
+		StudentController.DELTA_TOKEN_HEADER, HttpHeaders.ETAG, ServerTiming.HEADER})
 public class StudentController {
+	static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+	static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	// On the first page: a delta token from just before the page was read, so a client that pages
+	// through the list can keep it current with /api/student/delta instead of re-reading it.
+	static final String DELTA_TOKEN_HEADER = "X-Delta-Token";
 	Logger logger = LoggerFactory.getLogger( StudentController.class);
 	@Autowired
 	private StudentService studentService;
+	@Autowired
+	private StudentImportService studentImportService;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private CacheManager cacheManager;
+	@Autowired
+	private StudentSearchIndexLoader studentSearchIndexLoader;
+	@Autowired
+	private PayloadLogSampler payloadLogSampler;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private StudentChangeFeed studentChangeFeed;
+	@Autowired
+	private ApplicationEventPublisher applicationEventPublisher;
 @GetMapping("/api/student")
-	public ResponseEntity<?> listStudent()
+	public ResponseEntity<?> listStudent(@RequestParam(required = false) String after,
+			@RequestParam(required = false) Integer limit, @RequestParam(required = false) String sort, ServletWebRequest request)
 {
 		HttpHeaders headers = new HttpHeaders();
 		ResponseEntity<?> response;
 		try {
-			Student[] students = studentService.getAll();
-			response =  ResponseEntity.ok().headers(headers).body(students);
+			// count, max(id), sum(version) and max(lastUpdated) between them change on every insert, update
+			// and delete, so they version the list without reading it; unchanged lists are answered before
+			// any row is loaded. The tag
+			// is weak since it names the content rather than the bytes, which also lets Tomcat gzip it.
+			StudentListVersion version = studentService.getListVersion();
+			String etag = "W/\"" + version.getCount() + "-" + version.getMaxId() + "-" + version.getVersionSum()
+					+ "-" + time(version.getLastModified())
+					+ "-" + Integer.toHexString(Objects.hash(after, limit, sort)) + "\"";
+			boolean paged = after != null || limit != null || sort != null;
+			if (paged && after == null) {
+				// Set before the 304 check: a cache revalidating the first page takes the headers of the 304,
+				// and an unchanged list makes a token from now as good as one from when it was first read.
+				request.getResponse().setHeader(DELTA_TOKEN_HEADER, studentService.getDeltaToken());
+			}
+			if (notModified(request, etag, version.getLastModified())) {
+				return null;
+			}
+			if (!paged) {
+				Student[] students = studentService.getAll();
+				response =  ResponseEntity.ok().headers(headers).body(students);
+			}
+			else {
+				StudentPage page = studentService.getPage(after, limit, sort);
+				headers.add(TOTAL_COUNT_HEADER, Long.toString(page.getTotalCount()));
+				if (page.getNextCursor() != null) {
+					headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+				}
+				response =  ResponseEntity.ok().headers(headers).body(page.getStudents());
+			}
+		}
+		catch( IllegalArgumentException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+		}
+		catch( Exception ex)
+		{
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+@GetMapping(value = "/api/student/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> export(){
+		logger.info("Export >> started");
+		ObjectWriter writer = objectMapper.writerFor(Student.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		StreamingResponseBody body = out -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+				generator.setRootValueSeparator(null);
+				studentService.exportAll(student -> {
+					try {
+						writer.writeValue(generator, student);
+						generator.writeRaw('\n');
+					}
+					catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				});
+			}
+			catch (IOException ex) {
+				throw ex;
+			}
+			catch (Exception ex) {
+				logger.error("Export failed : {}", ex.getMessage(), ex);
+				throw new IOException(ex);
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+// What changed since a previous sync: GET /api/student/delta returns everything plus a token, and
+// ?since=<token> only the students written and the ids deleted after it. 410 means the token predates
+// the kept tombstones and the client has to reload the whole list.
+@GetMapping("/api/student/delta")
+	public ResponseEntity<?> delta(@RequestParam(required = false) String since){
+		ResponseEntity<?> response;
+		try {
+			StudentDelta delta = studentService.getDelta(since);
+			response = delta == null ? ResponseEntity.status(HttpStatus.GONE).body("Token has expired, reload the full list")
+					: ResponseEntity.ok(delta);
+		}
+		catch( IllegalArgumentException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
 		}
 		catch( Exception ex)
 		{
@@ -29,14 +177,94 @@ public class StudentController {
 		}
 		return response;
 	}
+// Server-sent events for every created, updated and deleted student. Each event id is a resume token:
+// EventSource sends it back as Last-Event-ID on reconnect (or pass ?since=), and the stream continues
+// from there, or starts with a reload event when the token is too old or from before a restart.
+@GetMapping(value = "/api/student/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+			@RequestParam(required = false) String since){
+		return studentChangeFeed.subscribe(lastEventId != null ? lastEventId : since);
+	}
+@GetMapping("/api/student/by-number/{studentNumber}")
+	public ResponseEntity<?> getByStudentNumber(@PathVariable final String studentNumber){
+		ResponseEntity<?> response;
+		try {
+			Student student = studentService.getByStudentNumber(studentNumber);
+			response = student == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(student);
+		}
+		catch( Exception ex)
+		{
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+@GetMapping("/api/student/by-email/{email}")
+	public ResponseEntity<?> getByEmail(@PathVariable final String email){
+		ResponseEntity<?> response;
+		try {
+			Student student = studentService.getByEmail(email);
+			response = student == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(student);
+		}
+		catch( Exception ex)
+		{
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+@GetMapping("/api/student/by-department/{department}")
+	public ResponseEntity<?> getByDepartment(@PathVariable final String department,
+			@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit){
+		HttpHeaders headers = new HttpHeaders();
+		ResponseEntity<?> response;
+		try {
+			StudentPage page = studentService.getByDepartment(department, after, limit);
+			headers.add(TOTAL_COUNT_HEADER, Long.toString(page.getTotalCount()));
+			if (page.getNextCursor() != null) {
+				headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+			}
+			response = ResponseEntity.ok().headers(headers).body(page.getStudents());
+		}
+		catch( IllegalArgumentException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+		}
+		catch( Exception ex)
+		{
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+@GetMapping("/api/student/search")
+	public ResponseEntity<?> search(@RequestParam("q") String query, @RequestParam(required = false) Integer limit){
+		ResponseEntity<?> response;
+		try {
+			Student[] students = studentService.search(query, limit);
+			response = ResponseEntity.ok(students);
+		}
+		catch( IllegalStateException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+		}
+		catch( Exception ex)
+		{
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+@PostMapping("/api/student/search/reindex")
+	public ResponseEntity<?> reindex(){
+		logger.info("Reindex >> requested");
+		studentSearchIndexLoader.rebuildAsync();
+		return ResponseEntity.accepted().build();
+	}
 @PostMapping("/api/student")
 	public ResponseEntity<?> add(@RequestBody Student student){
-		logger.info("Input >> " + student.toString() );
+		payloadLogSampler.log("create", "request", student);
 		HttpHeaders headers = new HttpHeaders();
 		ResponseEntity<?> response;
 		try {
 			Student newStudent = studentService.create(student);
-			logger.info("created student >> " + newStudent.toString() );
+			payloadLogSampler.log("create", "response", newStudent);
 			response = ResponseEntity.ok(newStudent);
 		}
 		catch( Exception ex)
@@ -46,15 +274,77 @@ public class StudentController {
 		}
 		return response;
 	}
+@PostMapping("/api/student/batch")
+	public ResponseEntity<?> addAll(@RequestBody Student[] students){
+		logger.debug("Input >> {} students", students.length);
+		ResponseEntity<?> response;
+		try {
+			StudentBatchResult result = studentService.createAll(students);
+			response = ResponseEntity.ok(result);
+		}
+		catch( Exception ex)
+		{
+			logger.error("Failed to create students : {}", ex.getMessage(), ex);
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+@PostMapping(value = "/api/student/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+	public ResponseEntity<?> importCsv(InputStream body){
+		ResponseEntity<?> response;
+		Path file = null;
+		try {
+			file = Files.createTempFile("student-import", ".csv");
+			Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+			logger.info("Import >> {} bytes", Files.size(file));
+			StudentImportReport report = studentImportService.importCsv(file);
+			if (report.getImported() > 0) {
+				studentSearchIndexLoader.rebuildAsync();
+				applicationEventPublisher.publishEvent(new StudentChange(StudentChange.Type.RELOAD, 0, null));
+			}
+			response = ResponseEntity.ok(report);
+		}
+		catch( IllegalArgumentException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+		}
+		catch( Exception ex)
+		{
+			logger.error("Failed to import students : {}", ex.getMessage(), ex);
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		finally {
+			if (file != null) {
+				try {
+					Files.deleteIfExists(file);
+				}
+				catch (IOException ex) {
+					logger.warn("Unable to delete {}", file);
+				}
+			}
+		}
+		return response;
+	}
+// Replaces the student if it is still at the version the client read: the one in If-Match, else
+// the body's "version"; a stale one is 412 or 409 respectively. If-Match: *, or a body without a
+// version, overwrites whatever is there.
 @PutMapping("/api/student/{id}")
-	public ResponseEntity<?> update(@PathVariable final Integer id, @RequestBody Student student){
-        logger.info("Input >> " + student.toString() );
+	public ResponseEntity<?> update(@PathVariable final Integer id, @RequestBody Student student,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        payloadLogSampler.log("update", "request", student);
         HttpHeaders headers = new HttpHeaders();
         ResponseEntity<?> response;
         try {
             student.setId(id);
-            Student newStudent = studentService.update(student);
-            response = ResponseEntity.ok(newStudent);
+            Integer version = ifMatch == null ? student.getVersion()
+                    : "*".equals(ifMatch.trim()) ? null : Integer.valueOf(version(id, ifMatch));
+            Student newStudent = studentService.update(student, version);
+            response = newStudent == null ? ResponseEntity.ok(null) : ResponseEntity.ok().eTag(etag(id, newStudent.getVersion())).body(newStudent);
+        }
+        catch( OptimisticLockingFailureException ex)
+        {
+            HttpStatus status = ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+            response = ResponseEntity.status(status).body("Student " + id + " has been changed since that version");
         }
         catch( Exception ex)
         {
@@ -63,13 +353,55 @@ public class StudentController {
         return response;
 	}
 
+// Only the fields in the body change, in one UPDATE. The version the edit was based on comes from
+// If-Match (the ETag of GET) or a "version" field; a stale one is 412 or 409 respectively.
+@PatchMapping(value = "/api/student/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+	public ResponseEntity<?> patch(@PathVariable final Integer id, @RequestBody Map<String, Object> body,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		payloadLogSampler.log("patch", "request", body);
+		ResponseEntity<?> response;
+		try {
+			StudentPatch patch = StudentPatch.of(body);
+			if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+				patch = patch.withVersion(version(id, ifMatch));
+			}
+			if (!studentService.patch(id, patch)) {
+				response = ResponseEntity.notFound().build();
+			}
+			else if (patch.getVersion() != null) {
+				response = ResponseEntity.noContent().eTag(etag(id, patch.getVersion() + 1)).build();
+			}
+			else {
+				response = ResponseEntity.noContent().build();
+			}
+		}
+		catch( OptimisticLockingFailureException ex)
+		{
+			HttpStatus status = ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+			response = ResponseEntity.status(status).body("Student " + id + " has been changed since that version");
+		}
+		catch( IllegalArgumentException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+		}
+		catch( Exception ex)
+		{
+			logger.error("Failed to patch student {} : {}", id, ex.getMessage(), ex);
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+
 @GetMapping("/api/student/{id}")
-	public ResponseEntity<?> get(@PathVariable final Integer id){
-		logger.info("Input student id >> " + Integer.toString(id));
+	public ResponseEntity<?> get(@PathVariable final Integer id, ServletWebRequest request){
+		logger.debug("Input student id >> {}", id);
 		HttpHeaders headers = new HttpHeaders();
 		ResponseEntity<?> response;
 		try {
 			Student student = studentService.get(id);
+			if (student != null && notModified(request, etag(id, student.getVersion()), student.getLastUpdated())) {
+				return null;
+			}
 			response = ResponseEntity.ok(student);
 		}
 		catch( Exception ex)
@@ -78,9 +410,59 @@ public class StudentController {
 		}
 		return response;
 	}
+@GetMapping("/api/student/cache/stats")
+	public ResponseEntity<?> cacheStats(){
+		Cache cache = cacheManager.getCache(StudentServiceImpl.STUDENT_CACHE);
+		if (!(cache instanceof CaffeineCache)) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cache statistics are not available");
+		}
+		com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
+		CacheStats stats = nativeCache.stats();
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("size", nativeCache.estimatedSize());
+		body.put("hitCount", stats.hitCount());
+		body.put("missCount", stats.missCount());
+		body.put("hitRate", stats.hitRate());
+		body.put("evictionCount", stats.evictionCount());
+		return ResponseEntity.ok(body);
+	}
+// Hibernate second-level cache, per region: the entity region, the query regions and the update
+// timestamps every cached query is checked against.
+@GetMapping("/api/student/cache/regions")
+	public ResponseEntity<?> cacheRegions(){
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		if (!statistics.isStatisticsEnabled()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Hibernate statistics are disabled");
+		}
+		Map<String, Object> body = new LinkedHashMap<>();
+		for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+			CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+			if (region == null) {
+				continue;
+			}
+			Map<String, Object> regionBody = new LinkedHashMap<>();
+			// JCache does not expose region sizes, Hibernate reports them as negative then.
+			if (region.getElementCountInMemory() >= 0) {
+				regionBody.put("size", region.getElementCountInMemory());
+			}
+			regionBody.put("hitCount", region.getHitCount());
+			regionBody.put("missCount", region.getMissCount());
+			regionBody.put("putCount", region.getPutCount());
+			long requests = region.getHitCount() + region.getMissCount();
+			regionBody.put("hitRate", requests == 0 ? 0.0 : (double) region.getHitCount() / requests);
+			body.put(regionName, regionBody);
+		}
+		Map<String, Object> queries = new LinkedHashMap<>();
+		queries.put("hitCount", statistics.getQueryCacheHitCount());
+		queries.put("missCount", statistics.getQueryCacheMissCount());
+		queries.put("putCount", statistics.getQueryCachePutCount());
+		queries.put("invalidations", statistics.getUpdateTimestampsCachePutCount());
+		body.put("queryCache", queries);
+		return ResponseEntity.ok(body);
+	}
 @DeleteMapping("/api/student/{id}")
 	public ResponseEntity<?> delete(@PathVariable final Integer id){
-		logger.info("Input >> " + Integer.toString(id));
+		logger.debug("Input >> {}", id);
 		HttpHeaders headers = new HttpHeaders();
 		ResponseEntity<?> response;
 		try {
@@ -93,4 +475,70 @@ public class StudentController {
 		}
 		return response;
 	}
+// Deletes every listed student in one statement, e.g. DELETE /api/student?ids=4,8,15
+@DeleteMapping(value = "/api/student", params = "ids")
+	public ResponseEntity<?> deleteAll(@RequestParam List<Integer> ids){
+		logger.debug("Input >> {} ids", ids.size());
+		ResponseEntity<?> response;
+		try {
+			response = ResponseEntity.ok(new StudentBulkResult(studentService.deleteAll(ids)));
+		}
+		catch( IllegalArgumentException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+		}
+		catch( Exception ex)
+		{
+			logger.error("Failed to delete students : {}", ex.getMessage(), ex);
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+// Moves a department's students, and any listed ids, to another department in one statement.
+@PostMapping("/api/student/reassign-department")
+	public ResponseEntity<?> reassignDepartment(@RequestBody StudentDepartmentChange change){
+		payloadLogSampler.log("reassign-department", "request", change);
+		ResponseEntity<?> response;
+		try {
+			response = ResponseEntity.ok(new StudentBulkResult(studentService.reassignDepartment(change)));
+		}
+		catch( IllegalArgumentException ex)
+		{
+			response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+		}
+		catch( Exception ex)
+		{
+			logger.error("Failed to reassign department : {}", ex.getMessage(), ex);
+			response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+		}
+		return response;
+	}
+	// Sets the validators on the response and reports whether the request's If-None-Match or
+	// If-Modified-Since already matches them; the 304 status is set by checkNotModified.
+	private boolean notModified(ServletWebRequest request, String etag, Date lastModified) {
+		request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+		return request.checkNotModified(etag, time(lastModified));
+	}
+	// Strong ETag of one student, "<id>-v<version>", which PATCH takes back as If-Match.
+	static String etag(int id, int version) {
+		return "\"" + id + "-v" + version + "\"";
+	}
+	// The version named by an If-Match of this student; anything else can never match, so it maps
+	// to a version no row has and the update fails its precondition.
+	static int version(int id, String ifMatch) {
+		String prefix = "\"" + id + "-v";
+		String tag = ifMatch.trim();
+		if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+			try {
+				return Integer.parseInt(tag.substring(prefix.length(), tag.length() - 1));
+			}
+			catch (NumberFormatException ex) {
+				return -1;
+			}
+		}
+		return -1;
+	}
+	private static long time(Date date) {
+		return date == null ? -1 : date.getTime();
+	}
 }
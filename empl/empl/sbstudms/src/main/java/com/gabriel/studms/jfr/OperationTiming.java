@@ -0,0 +1,35 @@
+package com.gabriel.studms.jfr;
+
+// Per-thread accumulator for the StudentService call in progress. Repository and transform calls add
+// their time to it; it only exists while a flight recording has the operation event enabled.
+class OperationTiming {
+	private static final ThreadLocal<OperationTiming> CURRENT = new ThreadLocal<>();
+	final OperationTiming outer;
+	long dbNanos;
+	int dbCalls;
+	long transformNanos;
+	long transforms;
+
+	private OperationTiming(OperationTiming outer) {
+		this.outer = outer;
+	}
+
+	static OperationTiming current() {
+		return CURRENT.get();
+	}
+
+	static OperationTiming begin() {
+		OperationTiming timing = new OperationTiming(CURRENT.get());
+		CURRENT.set(timing);
+		return timing;
+	}
+
+	void end() {
+		if (outer == null) {
+			CURRENT.remove();
+		}
+		else {
+			CURRENT.set(outer);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.gabriel.studms.jfr;
+import com.gabriel.studms.timing.ServerTiming;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.TimeUnit;
+
+// Hooks every Spring Data repository so its call time is added to the operation being recorded and
+// to the request's Server-Timing, the same way Boot attaches its repository metrics listener.
+@Component
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+	static final RepositoryMethodInvocationListener LISTENER = invocation -> {
+		OperationTiming timing = OperationTiming.current();
+		if (timing != null) {
+			timing.dbNanos += invocation.getDuration(TimeUnit.NANOSECONDS);
+			timing.dbCalls++;
+		}
+		ServerTiming serverTiming = ServerTiming.current();
+		if (serverTiming != null) {
+			serverTiming.addDb(invocation.getDuration(TimeUnit.NANOSECONDS));
+		}
+	};
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+		if (bean instanceof RepositoryFactoryBeanSupport) {
+			((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(
+					factory -> factory.addInvocationListener(LISTENER));
+		}
+		return bean;
+	}
+}
@@ -0,0 +1,113 @@
+package com.gabriel.studms.jfr;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Owns at most one in-process flight recording. Starting applies a JFR settings profile ("default" is
+// the ~1% overhead continuous profile, "profile" samples more), stopping keeps the data in a temp file,
+// and download dumps a snapshot of a running recording or returns the stopped one.
+@Component
+public class StudentFlightRecorder {
+	Logger logger = LoggerFactory.getLogger(StudentFlightRecorder.class);
+	@Value("${student.jfr.profile:default}")
+	String defaultProfile;
+	@Value("${student.jfr.max-age:1h}")
+	Duration maxAge;
+	@Value("${student.jfr.max-size:256MB}")
+	DataSize maxSize;
+	private Recording recording;
+	private Path stopped;
+
+	public synchronized Map<String, Object> start(String profile) throws IOException, ParseException {
+		if (recording != null && recording.getState() == RecordingState.RUNNING) {
+			throw new IllegalStateException("A recording is already running since " + recording.getStartTime());
+		}
+		String settings = profile == null || profile.isBlank() ? defaultProfile : profile;
+		Recording next = new Recording(Configuration.getConfiguration(settings));
+		next.setName("student-" + settings);
+		next.setToDisk(true);
+		next.setMaxAge(maxAge);
+		next.setMaxSize(maxSize.toBytes());
+		next.enable(StudentOperationEvent.class);
+		next.start();
+		discard();
+		recording = next;
+		logger.info("Started flight recording {} with profile {}", next.getId(), settings);
+		return status();
+	}
+
+	public synchronized Map<String, Object> stop() throws IOException {
+		if (recording == null || recording.getState() != RecordingState.RUNNING) {
+			throw new IllegalStateException("No recording is running");
+		}
+		recording.stop();
+		stopped = Files.createTempFile("student-", ".jfr");
+		recording.dump(stopped);
+		Map<String, Object> status = status();
+		status.put("size", Files.size(stopped));
+		recording.close();
+		recording = null;
+		logger.info("Stopped flight recording, {} bytes in {}", Files.size(stopped), stopped);
+		return status;
+	}
+
+	// Returns a file the caller should delete when done, or null when there is nothing to download.
+	public synchronized Path snapshot() throws IOException {
+		Path file = Files.createTempFile("student-", ".jfr");
+		if (recording != null && recording.getState() == RecordingState.RUNNING) {
+			recording.dump(file);
+			return file;
+		}
+		if (stopped != null) {
+			Files.copy(stopped, file, StandardCopyOption.REPLACE_EXISTING);
+			return file;
+		}
+		Files.delete(file);
+		return null;
+	}
+
+	public synchronized Map<String, Object> status() throws IOException {
+		Map<String, Object> status = new LinkedHashMap<>();
+		if (recording != null) {
+			status.put("id", recording.getId());
+			status.put("name", recording.getName());
+			status.put("state", recording.getState());
+			status.put("startTime", recording.getStartTime());
+			status.put("maxAge", recording.getMaxAge());
+			status.put("maxSize", recording.getMaxSize());
+		}
+		else {
+			status.put("state", stopped != null ? "STOPPED" : "NONE");
+			if (stopped != null) {
+				status.put("size", Files.size(stopped));
+			}
+		}
+		return status;
+	}
+
+	@PreDestroy
+	public synchronized void discard() throws IOException {
+		if (recording != null) {
+			recording.close();
+			recording = null;
+		}
+		if (stopped != null) {
+			Files.deleteIfExists(stopped);
+			stopped = null;
+		}
+	}
+}
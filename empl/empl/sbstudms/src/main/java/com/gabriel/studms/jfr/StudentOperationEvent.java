@@ -0,0 +1,37 @@
+package com.gabriel.studms.jfr;
+import jdk.jfr.*;
+
+// One event per StudentService call. The event's own duration is the whole operation; dbTime and
+// transformTime split out how much of it was spent in repository calls and in entity/model mapping.
+@Name("com.gabriel.studms.StudentOperation")
+@Label("Student Operation")
+@Category({"Student Service"})
+@Description("A StudentService call with its database and transform time")
+@StackTrace(false)
+public class StudentOperationEvent extends Event {
+	@Label("Operation")
+	String operation;
+
+	@Label("Student Id")
+	@Description("Id of the student the operation addressed or created, 0 when there is none")
+	int studentId;
+
+	@Label("Rows")
+	@Description("Students returned, created or streamed")
+	long rows;
+
+	@Label("Repository Calls")
+	int dbCalls;
+
+	@Label("Database Time")
+	@Description("Time inside repository calls; for streamed results it spans the whole stream, transforms included")
+	@Timespan(Timespan.NANOSECONDS)
+	long dbTime;
+
+	@Label("Transform Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long transformTime;
+
+	@Label("Exception")
+	String exception;
+}
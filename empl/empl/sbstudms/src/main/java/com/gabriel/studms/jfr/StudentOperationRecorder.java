@@ -0,0 +1,108 @@
+package com.gabriel.studms.jfr;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentBatchResult;
+import com.gabriel.studms.model.StudentDelta;
+import com.gabriel.studms.model.StudentPage;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import java.util.Collection;
+
+// Emits a StudentOperationEvent around every StudentService call. Transform time is measured here
+// and repository time comes from RepositoryTimingPostProcessor, both landing in the thread's
+// OperationTiming. With no recording running the event is disabled and each call costs one check.
+@Aspect
+@Component
+public class StudentOperationRecorder {
+
+	@Around("execution(* com.gabriel.studms.service.StudentService.*(..))")
+	public Object recordOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+		StudentOperationEvent event = new StudentOperationEvent();
+		if (!event.isEnabled()) {
+			return joinPoint.proceed();
+		}
+		OperationTiming timing = OperationTiming.begin();
+		event.begin();
+		Object result = null;
+		try {
+			result = joinPoint.proceed();
+			return result;
+		}
+		catch (Throwable ex) {
+			event.exception = ex.getClass().getSimpleName();
+			throw ex;
+		}
+		finally {
+			event.end();
+			timing.end();
+			if (event.shouldCommit()) {
+				event.operation = joinPoint.getSignature().getName();
+				event.studentId = studentId(joinPoint.getArgs(), result);
+				event.rows = rows(result, timing);
+				event.dbCalls = timing.dbCalls;
+				event.dbTime = timing.dbNanos;
+				event.transformTime = timing.transformNanos;
+				event.commit();
+			}
+		}
+	}
+
+	@Around("execution(* com.gabriel.studms.transform.TransformStudentService.*(..))")
+	public Object recordTransform(ProceedingJoinPoint joinPoint) throws Throwable {
+		OperationTiming timing = OperationTiming.current();
+		if (timing == null) {
+			return joinPoint.proceed();
+		}
+		long start = System.nanoTime();
+		try {
+			return joinPoint.proceed();
+		}
+		finally {
+			timing.transformNanos += System.nanoTime() - start;
+			timing.transforms++;
+		}
+	}
+
+	static int studentId(Object[] args, Object result) {
+		if (result instanceof Student) {
+			return ((Student) result).getId();
+		}
+		if (args.length > 0 && args[0] instanceof Integer) {
+			return (Integer) args[0];
+		}
+		if (args.length > 0 && args[0] instanceof Student) {
+			return ((Student) args[0]).getId();
+		}
+		return 0;
+	}
+
+	// Streaming calls return nothing, so their rows are the students that went through transform.
+	static long rows(Object result, OperationTiming timing) {
+		if (result instanceof Object[]) {
+			return ((Object[]) result).length;
+		}
+		if (result instanceof Collection) {
+			return ((Collection<?>) result).size();
+		}
+		if (result instanceof StudentPage) {
+			return ((StudentPage) result).getStudents().length;
+		}
+		if (result instanceof Integer) {
+			return (Integer) result;
+		}
+		if (result instanceof Boolean) {
+			return (Boolean) result ? 1 : 0;
+		}
+		if (result instanceof StudentDelta) {
+			return ((StudentDelta) result).getStudents().length + ((StudentDelta) result).getDeleted().length;
+		}
+		if (result instanceof StudentBatchResult) {
+			return ((StudentBatchResult) result).getCreated();
+		}
+		if (result != null) {
+			return 1;
+		}
+		return timing.transforms;
+	}
+}
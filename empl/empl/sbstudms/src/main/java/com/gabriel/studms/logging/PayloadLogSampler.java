@@ -0,0 +1,52 @@
+package com.gabriel.studms.logging;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Request and entity dumps go to the com.gabriel.studms.payload logger at DEBUG, one in every N calls
+// per operation. Each stage keeps its own count, so with the same N the stages of one request are
+// sampled together. N comes from student.logging.payload-sample.<operation>, falling back to
+// student.logging.payload-sample-every. With the logger above DEBUG (the default) a call costs one
+// level check and the payload is never formatted. Dumps can hold personal data, so turning them on
+// takes logging.level.com.gabriel.studms.payload=DEBUG at startup; /actuator/loggers is not exposed.
+@Component
+public class PayloadLogSampler {
+	Logger payloadLogger = LoggerFactory.getLogger("com.gabriel.studms.payload");
+	@Autowired
+	Environment environment;
+	@Value("${student.logging.payload-sample-every:100}")
+	int defaultEvery;
+	private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+
+	public void log(String operation, String stage, Object payload) {
+		if (!payloadLogger.isDebugEnabled()) {
+			return;
+		}
+		if (samples.computeIfAbsent(operation + ":" + stage, key -> sample(operation)).next()) {
+			payloadLogger.debug("{}:{} {}", operation, stage, payload);
+		}
+	}
+
+	Sample sample(String operation) {
+		return new Sample(Math.max(1, environment.getProperty("student.logging.payload-sample." + operation, Integer.class, defaultEvery)));
+	}
+
+	static class Sample {
+		final int every;
+		final AtomicLong calls = new AtomicLong();
+
+		Sample(int every) {
+			this.every = every;
+		}
+
+		boolean next() {
+			return calls.getAndIncrement() % every == 0;
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package com.gabriel.studms.metrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Records request and response body sizes per route. Bodies are counted as they stream through
+// rather than buffered, so the NDJSON export and CSV import cost nothing extra in memory.
+@Component
+public class PayloadSizeFilter extends OncePerRequestFilter {
+	public static final String REQUEST_SIZE = "http.server.request.size";
+	public static final String RESPONSE_SIZE = "http.server.response.size";
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		CountingRequest countingRequest = new CountingRequest(request);
+		CountingResponse countingResponse = new CountingResponse(response);
+		try {
+			chain.doFilter(countingRequest, countingResponse);
+		}
+		finally {
+			if (request.isAsyncStarted()) {
+				// Streaming responses finish on another thread after the filter chain has returned.
+				request.getAsyncContext().addListener(new AsyncListener() {
+					@Override
+					public void onComplete(AsyncEvent event) {
+						record(request, response, countingRequest, countingResponse);
+					}
+
+					@Override
+					public void onTimeout(AsyncEvent event) {
+					}
+
+					@Override
+					public void onError(AsyncEvent event) {
+					}
+
+					@Override
+					public void onStartAsync(AsyncEvent event) {
+					}
+				});
+			}
+			else {
+				if (countingResponse.writer != null) {
+					countingResponse.writer.flush();
+				}
+				record(request, response, countingRequest, countingResponse);
+			}
+		}
+	}
+
+	void record(HttpServletRequest request, HttpServletResponse response, CountingRequest countingRequest,
+			CountingResponse countingResponse) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = pattern != null ? pattern.toString() : response.getStatus() == 404 ? "NOT_FOUND" : "UNKNOWN";
+		String status = Integer.toString(response.getStatus());
+		summary(REQUEST_SIZE, request.getMethod(), uri, status).record(countingRequest.bytes.get());
+		summary(RESPONSE_SIZE, request.getMethod(), uri, status).record(countingResponse.bytes.get());
+	}
+
+	DistributionSummary summary(String name, String method, String uri, String status) {
+		return DistributionSummary.builder(name)
+				.baseUnit("bytes")
+				.tag("method", method)
+				.tag("uri", uri)
+				.tag("status", status)
+				.register(meterRegistry);
+	}
+
+	static class CountingRequest extends HttpServletRequestWrapper {
+		final AtomicLong bytes = new AtomicLong();
+		ServletInputStream in;
+
+		CountingRequest(HttpServletRequest request) {
+			super(request);
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException {
+			if (in == null) {
+				ServletInputStream delegate = super.getInputStream();
+				in = new ServletInputStream() {
+					@Override
+					public int read() throws IOException {
+						int b = delegate.read();
+						if (b >= 0) {
+							bytes.incrementAndGet();
+						}
+						return b;
+					}
+
+					@Override
+					public int read(byte[] buffer, int offset, int length) throws IOException {
+						int count = delegate.read(buffer, offset, length);
+						if (count > 0) {
+							bytes.addAndGet(count);
+						}
+						return count;
+					}
+
+					@Override
+					public boolean isFinished() {
+						return delegate.isFinished();
+					}
+
+					@Override
+					public boolean isReady() {
+						return delegate.isReady();
+					}
+
+					@Override
+					public void setReadListener(ReadListener listener) {
+						delegate.setReadListener(listener);
+					}
+				};
+			}
+			return in;
+		}
+	}
+
+	static class CountingResponse extends HttpServletResponseWrapper {
+		final AtomicLong bytes = new AtomicLong();
+		ServletOutputStream out;
+		PrintWriter writer;
+
+		CountingResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (out == null) {
+				ServletOutputStream delegate = super.getOutputStream();
+				out = new ServletOutputStream() {
+					@Override
+					public void write(int b) throws IOException {
+						delegate.write(b);
+						bytes.incrementAndGet();
+					}
+
+					@Override
+					public void write(byte[] buffer, int offset, int length) throws IOException {
+						delegate.write(buffer, offset, length);
+						bytes.addAndGet(length);
+					}
+
+					@Override
+					public void flush() throws IOException {
+						delegate.flush();
+					}
+
+					@Override
+					public void close() throws IOException {
+						delegate.close();
+					}
+
+					@Override
+					public boolean isReady() {
+						return delegate.isReady();
+					}
+
+					@Override
+					public void setWriteListener(WriteListener listener) {
+						delegate.setWriteListener(listener);
+					}
+				};
+			}
+			return out;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (writer == null) {
+				writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+			}
+			return writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			}
+			super.flushBuffer();
+		}
+	}
+}
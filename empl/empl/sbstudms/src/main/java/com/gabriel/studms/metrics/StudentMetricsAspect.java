@@ -0,0 +1,61 @@
+package com.gabriel.studms.metrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Times every StudentService and TransformStudentService call. Repository calls are already timed by
+// Spring Boot as spring.data.repository.invocations, and HTTP requests as http.server.requests.
+// The timer count doubles as the call counter, and the exception tag splits out failures.
+@Aspect
+@Component
+public class StudentMetricsAspect {
+	public static final String SERVICE_TIMER = "student.service";
+	public static final String TRANSFORM_TIMER = "student.transform";
+	@Autowired
+	MeterRegistry meterRegistry;
+	// The exception="none" timer of each advised method, so a successful call (nearly all of them, and
+	// transform runs once per student in a list) skips building tags and the registry lookup.
+	private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+	@Around("execution(* com.gabriel.studms.service.StudentService.*(..))")
+	public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(SERVICE_TIMER, MethodSignature::getName, joinPoint);
+	}
+
+	@Around("execution(* com.gabriel.studms.transform.TransformStudentService.*(..))")
+	public Object timeTransform(ProceedingJoinPoint joinPoint) throws Throwable {
+		// Both directions are overloads of transform, so the tag names them by their result instead.
+		return time(TRANSFORM_TIMER, signature -> "to" + signature.getReturnType().getSimpleName(), joinPoint);
+	}
+
+	Object time(String name, Function<MethodSignature, String> method, ProceedingJoinPoint joinPoint) throws Throwable {
+		MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+		Timer.Sample sample = Timer.start(meterRegistry);
+		Object result;
+		try {
+			result = joinPoint.proceed();
+		}
+		catch (Throwable ex) {
+			sample.stop(timer(name, method.apply(signature), ex.getClass().getSimpleName()));
+			throw ex;
+		}
+		sample.stop(timers.computeIfAbsent(signature.getMethod(), key -> timer(name, method.apply(signature), "none")));
+		return result;
+	}
+
+	Timer timer(String name, String method, String exception) {
+		return Timer.builder(name)
+				.tag("method", method)
+				.tag("exception", exception)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,263 @@
+package com.gabriel.studms.search;
+import com.gabriel.studms.model.Student;
+import org.springframework.stereotype.Component;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+// In-memory trigram inverted index over firstName, lastName, email, department and studentNumber.
+// Each trigram maps to a sorted array of student ids, so a substring query intersects the posting
+// lists of its trigrams, smallest first, and only checks the surviving candidates against the text.
+@Component
+public class StudentSearchIndex {
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private IndexData current = new IndexData();
+	private List<Consumer<IndexData>> pending;
+	private volatile boolean ready;
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public void put(Student student) {
+		apply(data -> data.put(student));
+	}
+
+	// Re-indexes the stored copy of a student with change applied, for writes that never load the row.
+	public void update(int id, UnaryOperator<Student> change) {
+		apply(data -> {
+			Doc doc = data.docs.get(id);
+			if (doc != null) {
+				data.put(change.apply(doc.student));
+			}
+		});
+	}
+
+	// The same for every indexed student match accepts, mirroring a set-based UPDATE.
+	public void update(Predicate<Student> match, UnaryOperator<Student> change) {
+		apply(data -> {
+			List<Student> matched = new ArrayList<>();
+			for (Doc doc : data.docs.values()) {
+				if (match.test(doc.student)) {
+					matched.add(doc.student);
+				}
+			}
+			matched.forEach(student -> data.put(change.apply(student)));
+		});
+	}
+
+	public void remove(int id) {
+		apply(data -> data.remove(id));
+	}
+
+	public Student[] search(String query, int limit) {
+		lock.readLock().lock();
+		try {
+			return current.search(query.toLowerCase(Locale.ROOT).trim(), limit);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Builds a fresh index off-lock from source while put/remove keep serving the old one. Changes
+	// that arrive during the build are queued and replayed onto the new index before it is swapped in.
+	public synchronized void rebuild(Consumer<Consumer<Student>> source) {
+		lock.writeLock().lock();
+		try {
+			pending = new ArrayList<>();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		IndexData fresh = new IndexData();
+		boolean built = false;
+		try {
+			source.accept(fresh::put);
+			built = true;
+		}
+		finally {
+			lock.writeLock().lock();
+			try {
+				if (built) {
+					pending.forEach(change -> change.accept(fresh));
+					current = fresh;
+					ready = true;
+				}
+				pending = null;
+			}
+			finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return current.docs.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void apply(Consumer<IndexData> change) {
+		lock.writeLock().lock();
+		try {
+			change.accept(current);
+			if (pending != null) {
+				pending.add(change);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	static String text(Student student) {
+		StringBuilder text = new StringBuilder();
+		for (String field : new String[] {student.getFirstName(), student.getLastName(), student.getEmail(),
+				student.getDepartment(), student.getStudentNumber()}) {
+			if (field != null) {
+				text.append(field.toLowerCase(Locale.ROOT));
+			}
+			// Separator no query can contain, so no match spans two fields.
+			text.append('\u0001');
+		}
+		return text.toString();
+	}
+
+	static long[] trigrams(String text) {
+		Set<Long> grams = new HashSet<>();
+		for (int i = 0; i + 3 <= text.length(); i++) {
+			grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+		}
+		long[] result = new long[grams.size()];
+		int i = 0;
+		for (long gram : grams) {
+			result[i++] = gram;
+		}
+		return result;
+	}
+
+	static class Doc {
+		final Student student;
+		final String text;
+		final long[] grams;
+
+		Doc(Student student, String text, long[] grams) {
+			this.student = student;
+			this.text = text;
+			this.grams = grams;
+		}
+	}
+
+	static class IndexData {
+		final TreeMap<Integer, Doc> docs = new TreeMap<>();
+		final Map<Long, Postings> postings = new HashMap<>();
+
+		void put(Student student) {
+			remove(student.getId());
+			String text = text(student);
+			long[] grams = trigrams(text);
+			docs.put(student.getId(), new Doc(student, text, grams));
+			for (long gram : grams) {
+				postings.computeIfAbsent(gram, g -> new Postings()).add(student.getId());
+			}
+		}
+
+		void remove(int id) {
+			Doc doc = docs.remove(id);
+			if (doc == null) {
+				return;
+			}
+			for (long gram : doc.grams) {
+				Postings list = postings.get(gram);
+				if (list != null && list.remove(id) && list.size == 0) {
+					postings.remove(gram);
+				}
+			}
+		}
+
+		Student[] search(String query, int limit) {
+			List<Student> matches = new ArrayList<>();
+			if (query.isEmpty() || limit <= 0) {
+				return new Student[0];
+			}
+			if (query.length() < 3) {
+				// Too short for a trigram; walk the documents in id order and stop at the limit.
+				for (Doc doc : docs.values()) {
+					if (doc.text.contains(query) && matches.add(doc.student) && matches.size() == limit) {
+						break;
+					}
+				}
+				return matches.toArray(new Student[0]);
+			}
+			long[] grams = trigrams(query);
+			Postings[] lists = new Postings[grams.length];
+			for (int i = 0; i < grams.length; i++) {
+				lists[i] = postings.get(grams[i]);
+				if (lists[i] == null) {
+					return new Student[0];
+				}
+			}
+			Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+			Postings smallest = lists[0];
+			candidates:
+			for (int c = 0; c < smallest.size; c++) {
+				int id = smallest.ids[c];
+				for (int i = 1; i < lists.length; i++) {
+					if (!lists[i].contains(id)) {
+						continue candidates;
+					}
+				}
+				Doc doc = docs.get(id);
+				if (doc.text.contains(query)) {
+					matches.add(doc.student);
+					if (matches.size() == limit) {
+						break;
+					}
+				}
+			}
+			return matches.toArray(new Student[0]);
+		}
+	}
+
+	// Sorted, growable int array. Ids are mostly appended in increasing order, so adds are usually O(1).
+	static class Postings {
+		int[] ids = new int[4];
+		int size;
+
+		void add(int id) {
+			int at = Arrays.binarySearch(ids, 0, size, id);
+			if (at >= 0) {
+				return;
+			}
+			at = -at - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			System.arraycopy(ids, at, ids, at + 1, size - at);
+			ids[at] = id;
+			size++;
+		}
+
+		boolean remove(int id) {
+			int at = Arrays.binarySearch(ids, 0, size, id);
+			if (at < 0) {
+				return false;
+			}
+			System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+			size--;
+			return true;
+		}
+
+		boolean contains(int id) {
+			return Arrays.binarySearch(ids, 0, size, id) >= 0;
+		}
+	}
+}
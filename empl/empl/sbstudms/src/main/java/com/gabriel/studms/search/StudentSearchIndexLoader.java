@@ -0,0 +1,74 @@
+package com.gabriel.studms.search;
+import com.gabriel.studms.service.StudentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class StudentSearchIndexLoader {
+	Logger logger = LoggerFactory.getLogger(StudentSearchIndexLoader.class);
+	@Autowired
+	StudentSearchIndex studentSearchIndex;
+	@Autowired
+	StudentService studentService;
+	// Rebuilds read the whole table, so they get a thread of their own rather than the common pool,
+	// whose few threads parallel streams and other async work in the JVM rely on.
+	private final ExecutorService rebuilds = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "student-search-rebuild");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+	@EventListener
+	public void onReady(ApplicationReadyEvent event) {
+		// Only a serving instance needs the index; the command line importer skips the build.
+		if (event.getApplicationContext() instanceof WebServerApplicationContext) {
+			rebuild();
+		}
+	}
+
+	// Requests made while a rebuild waits to start share it; one made while it runs gets another after it.
+	public void rebuildAsync() {
+		if (rebuildQueued.compareAndSet(false, true)) {
+			rebuilds.execute(() -> {
+				rebuildQueued.set(false);
+				rebuild();
+			});
+		}
+	}
+
+	@PreDestroy
+	public void close() {
+		rebuilds.shutdownNow();
+	}
+
+	public void rebuild() {
+		long start = System.currentTimeMillis();
+		try {
+			studentSearchIndex.rebuild(sink -> {
+				try {
+					studentService.exportAll(sink);
+				}
+				catch (RuntimeException ex) {
+					throw ex;
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+			logger.info(" Search index built >> {} students in {} ms", studentSearchIndex.size(), System.currentTimeMillis() - start);
+		}
+		catch (RuntimeException ex) {
+			logger.error(" Failed to build search index : {}", ex.getMessage(), ex);
+		}
+	}
+}
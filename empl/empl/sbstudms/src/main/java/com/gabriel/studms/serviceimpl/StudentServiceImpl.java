@@ -1,64 +1,334 @@
 package com.gabriel.studms.serviceimpl;
 import com.gabriel.studms.entity.StudentData;
+import com.gabriel.studms.entity.StudentTombstone;
+import com.gabriel.studms.logging.PayloadLogSampler;
 import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentBatchItem;
+import com.gabriel.studms.model.StudentBatchResult;
+import com.gabriel.studms.model.StudentChange;
+import com.gabriel.studms.model.StudentDelta;
+import com.gabriel.studms.model.StudentDepartmentChange;
+import com.gabriel.studms.model.StudentListVersion;
+import com.gabriel.studms.model.StudentPage;
+import com.gabriel.studms.model.StudentPatch;
 import com.gabriel.studms.repository.StudentDataRepository;
+import com.gabriel.studms.repository.StudentTombstoneRepository;
+import com.gabriel.studms.search.StudentSearchIndex;
 import com.gabriel.studms.service.StudentService;
 import com.gabriel.studms.transform.TransformStudentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class StudentServiceImpl implements StudentService {
+	public static final String STUDENT_CACHE = "students";
 	Logger logger = LoggerFactory.getLogger(StudentServiceImpl.class);
 	@Autowired
 	StudentDataRepository studentDataRepository;
 	@Autowired
+	StudentTombstoneRepository studentTombstoneRepository;
+	@Autowired
 	TransformStudentService transformerStudentService;
+	@Autowired
+	StudentSearchIndex studentSearchIndex;
+	@PersistenceContext
+	EntityManager entityManager;
+	@Autowired
+	TransactionTemplate transactionTemplate;
+	@Autowired
+	PayloadLogSampler payloadLogSampler;
+	@Autowired
+	ApplicationEventPublisher applicationEventPublisher;
+	@Value("${student.batch.size:50}")
+	int batchSize;
+	@Value("${student.search.default-limit:20}")
+	int defaultSearchLimit;
+	@Value("${student.search.max-limit:100}")
+	int maxSearchLimit;
+	@Value("${student.page.default-limit:50}")
+	int defaultPageLimit;
+	@Value("${student.page.max-limit:500}")
+	int maxPageLimit;
+	@Value("${student.bulk.max-ids:1000}")
+	int maxBulkIds;
+	@Value("${student.delta.max-rows:5000}")
+	int maxDeltaRows;
+	@Value("${student.delta.overlap:5s}")
+	Duration deltaOverlap;
+	@Value("${student.delta.tombstone-retention:30d}")
+	Duration tombstoneRetention;
+	static final Set<String> SORT_FIELDS = Set.of("id", "lastName", "firstName");
 	@Override
 
 public Student[] getAll() {
-		List<StudentData> studentsData = new ArrayList<>();
-		List<Student> students = new ArrayList<>();
-		studentDataRepository.findAll().forEach(studentsData::add);
-		Iterator<StudentData> it = studentsData.iterator();
-		while(it.hasNext()) {
-			StudentData studentData = it.next();
-			Student student = transformerStudentService.transform(studentData);
-			students.add(student);
+		return studentDataRepository.findAllStudents().toArray(new Student[0]);
+	}
+	@Override
+public StudentListVersion getListVersion() {
+		StudentListVersion version = studentDataRepository.findListVersion();
+		version.includeLastDeleted(studentTombstoneRepository.findLastDeleted());
+		return version;
+	}
+	@Override
+public StudentPage getPage(String after, Integer limit, String sort) {
+		String sortField = "id";
+		boolean descending = false;
+		if (sort != null && !sort.isBlank()) {
+			String[] parts = sort.split(",");
+			sortField = parts[0].trim();
+			descending = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim());
+		}
+		if (!SORT_FIELDS.contains(sortField)) {
+			throw new IllegalArgumentException("Unsupported sort field: " + sortField);
 		}
-		Student[] array = new Student[students.size()];
-		for  (int i = 0; i < students.size(); i++){
-			array[i] = students.get(i);
+		int pageSize = pageSize(limit);
+
+		Integer afterId = null;
+		String afterValue = null;
+		long totalCount;
+		String[] cursor = decodeCursor(after);
+		if (cursor != null) {
+			afterId = Integer.valueOf(cursor[0]);
+			totalCount = Long.parseLong(cursor[1]);
+			afterValue = cursor.length > 2 ? cursor[2] : null;
+		}
+		else {
+			totalCount = studentDataRepository.count();
+		}
+
+		Student[] students = studentDataRepository.findPageAfter(sortField, descending, afterValue, afterId, pageSize).toArray(new Student[0]);
+
+		StudentPage page = new StudentPage();
+		page.setStudents(students);
+		page.setTotalCount(totalCount);
+		if (students.length == pageSize) {
+			Student last = students[students.length - 1];
+			String value = null;
+			if (!"id".equals(sortField)) {
+				value = "lastName".equals(sortField) ? last.getLastName() : last.getFirstName();
+			}
+			page.setNextCursor(encodeCursor(last.getId(), totalCount, value));
+		}
+		return page;
+	}
+	@Override
+	@Transactional(readOnly = true)
+public StudentDelta getDelta(String since) {
+		long now = System.currentTimeMillis();
+		long sinceMillis = 0;
+		int afterId = 0;
+		// When the client's sync started; a truncated page hands out a continuation token carrying it next
+		// to its (lastUpdated, id) position. Every page reports the deletes since then, so a row sent on
+		// an early page and deleted before the last one still reaches the client. A first sync starts
+		// now, less the overlap, to catch deletes committing while its first page is read.
+		long origin = now - deltaOverlap.toMillis();
+		String[] token = decodeCursor(since);
+		if (token != null) {
+			afterId = Integer.parseInt(token[0]);
+			sinceMillis = Long.parseLong(token[1]);
+			origin = token.length > 2 ? Long.parseLong(token[2]) : sinceMillis;
+		}
+		if (origin < now - tombstoneRetention.toMillis()) {
+			// Tombstones that old may have been purged, so deletes could be missed.
+			return null;
+		}
+		List<Student> changed = studentDataRepository.findChangedSince(new Date(sinceMillis), afterId, PageRequest.of(0, maxDeltaRows));
+		StudentDelta delta = new StudentDelta();
+		delta.setStudents(changed.toArray(new Student[0]));
+		delta.setDeleted(studentTombstoneRepository.findDeletedIdsSince(new Date(origin)).toArray(new Integer[0]));
+		if (changed.size() == maxDeltaRows) {
+			Student last = changed.get(changed.size() - 1);
+			delta.setMore(true);
+			delta.setToken(encodeCursor(last.getId(), last.getLastUpdated().getTime(), Long.toString(origin)));
+		}
+		else {
+			// The next sync starts a little in the past, so rows whose transactions were still open
+			// (or whose timestamps the database rounded) are sent again rather than missed.
+			delta.setToken(encodeCursor(0, Math.max(now - deltaOverlap.toMillis(), origin), null));
+		}
+		return delta;
+	}
+	@Override
+public String getDeltaToken() {
+		return encodeCursor(0, System.currentTimeMillis() - deltaOverlap.toMillis(), null);
+	}
+	@Override
+public StudentPage getByDepartment(String department, String after, Integer limit) {
+		int pageSize = pageSize(limit);
+		String[] cursor = decodeCursor(after);
+		int afterId = cursor == null ? 0 : Integer.parseInt(cursor[0]);
+		long totalCount = cursor == null ? studentDataRepository.countByDepartment(department) : Long.parseLong(cursor[1]);
+		List<StudentData> rows = studentDataRepository.findByDepartmentAndIdGreaterThanOrderByIdAsc(department, afterId, PageRequest.of(0, pageSize));
+		Student[] students = new Student[rows.size()];
+		for (int i = 0; i < students.length; i++) {
+			students[i] = transformerStudentService.transform(rows.get(i));
+		}
+		StudentPage page = new StudentPage();
+		page.setStudents(students);
+		page.setTotalCount(totalCount);
+		if (students.length == pageSize) {
+			page.setNextCursor(encodeCursor(students[students.length - 1].getId(), totalCount, null));
+		}
+		return page;
+	}
+	@Override
+public Student getByStudentNumber(String studentNumber) {
+		logger.debug(" Input studentNumber >> {}", studentNumber);
+		return studentDataRepository.findFirstByStudentNumberOrderByIdAsc(studentNumber).map(transformerStudentService::transform).orElse(null);
+	}
+	@Override
+public Student getByEmail(String email) {
+		logger.debug(" Input email >> {}", email);
+		return studentDataRepository.findFirstByEmailOrderByIdAsc(email).map(transformerStudentService::transform).orElse(null);
+	}
+	int pageSize(Integer limit) {
+		return limit == null ? defaultPageLimit : Math.min(Math.max(limit, 1), maxPageLimit);
+	}
+	// Cursors are "<lastId>|<totalCount>[|<lastSortValue>]"; the total is counted once on the first
+	// page and carried forward so later pages stay a single index range scan.
+	static String encodeCursor(int lastId, long totalCount, String lastValue) {
+		String cursor = lastId + "|" + totalCount + (lastValue == null ? "" : "|" + lastValue);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+	}
+	static String[] decodeCursor(String after) {
+		if (after == null || after.isEmpty()) {
+			return null;
+		}
+		try {
+			String[] cursor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).split("\\|", 3);
+			Integer.parseInt(cursor[0]);
+			Long.parseLong(cursor[1]);
+			return cursor;
+		}
+		catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+			throw new IllegalArgumentException("Invalid cursor: " + after);
+		}
+	}
+	@Override
+	@Transactional(readOnly = true)
+public void exportAll(Consumer<Student> sink) {
+		// Rows come off a server-side cursor and are detached once handed to the sink,
+		// so neither the result set nor the persistence context grows with the table.
+		try (Stream<StudentData> rows = studentDataRepository.streamAll()) {
+			rows.forEach(studentData -> {
+				sink.accept(transformerStudentService.transform(studentData));
+				entityManager.detach(studentData);
+			});
 		}
-		return array;
 	}
 	@Override
 public Student create(Student student) {
-		logger.info(" add:Input " + student.toString());
 		StudentData studentData = transformerStudentService.transform(student);
-        System.out.println(studentData);
 		studentData = studentDataRepository.save(studentData);
-		logger.info(" add:Input " + studentData.toString());
+		payloadLogSampler.log("create", "saved", studentData);
 		Student newStudent = transformerStudentService.transform(studentData);
-        System.out.println(newStudent);
+		studentSearchIndex.put(newStudent);
+		publish(StudentChange.Type.CREATED, newStudent.getId(), newStudent);
 		return newStudent;
 	}
 @Override
-public Student update(Student student) {
-		logger.info(" update:Input " + student.toString());
+public StudentBatchResult createAll(Student[] students) {
+		logger.debug(" createAll:Input {} students", students.length);
+		StudentBatchItem[] items = new StudentBatchItem[students.length];
+		int created = 0;
+		for (int from = 0; from < students.length; from += batchSize) {
+			int to = Math.min(from + batchSize, students.length);
+			List<Integer> indexes = new ArrayList<>();
+			List<StudentData> chunk = new ArrayList<>();
+			for (int i = from; i < to; i++) {
+				if (students[i] == null) {
+					items[i] = batchItem(i, StudentBatchItem.Status.FAILED, null, "Missing student");
+					continue;
+				}
+				indexes.add(i);
+				chunk.add(newStudentData(students[i]));
+			}
+			try {
+				transactionTemplate.executeWithoutResult(status -> studentDataRepository.saveAll(chunk));
+				for (int i = 0; i < chunk.size(); i++) {
+					Student newStudent = transformerStudentService.transform(chunk.get(i));
+					studentSearchIndex.put(newStudent);
+					publish(StudentChange.Type.CREATED, newStudent.getId(), newStudent);
+					items[indexes.get(i)] = batchItem(indexes.get(i), StudentBatchItem.Status.CREATED, newStudent, null);
+				}
+				created += chunk.size();
+			}
+			catch (RuntimeException ex) {
+				// A single bad row fails the whole JDBC batch; replay the chunk row by row to find it.
+				logger.warn(" createAll: batch {}-{} failed, retrying rows individually", from, to);
+				for (int index : indexes) {
+					try {
+						StudentData studentData = transactionTemplate.execute(status -> studentDataRepository.save(newStudentData(students[index])));
+						Student newStudent = transformerStudentService.transform(studentData);
+						studentSearchIndex.put(newStudent);
+						publish(StudentChange.Type.CREATED, newStudent.getId(), newStudent);
+						items[index] = batchItem(index, StudentBatchItem.Status.CREATED, newStudent, null);
+						created++;
+					}
+					catch (RuntimeException rowEx) {
+						items[index] = batchItem(index, StudentBatchItem.Status.FAILED, students[index],
+								NestedExceptionUtils.getMostSpecificCause(rowEx).getMessage());
+					}
+				}
+			}
+		}
+		StudentBatchResult result = new StudentBatchResult();
+		result.setRequested(students.length);
+		result.setCreated(created);
+		result.setFailed(students.length - created);
+		result.setItems(items);
+		logger.debug(" createAll:Result created {} of {}", created, students.length);
+		return result;
+	}
+	StudentData newStudentData(Student student) {
+		StudentData studentData = transformerStudentService.transform(student);
+		studentData.setId(0);
+		return studentData;
+	}
+	StudentBatchItem batchItem(int index, StudentBatchItem.Status status, Student student, String error) {
+		StudentBatchItem item = new StudentBatchItem();
+		item.setIndex(index);
+		item.setStatus(status);
+		item.setStudent(student);
+		item.setError(error);
+		return item;
+	}
+@Override
+	@CacheEvict(cacheNames = STUDENT_CACHE, key = "#student.id")
+public Student update(Student student, Integer version) {
 		
 		
 		Optional<StudentData> existingStudentOpt = studentDataRepository.findById(student.getId());
 		if (!existingStudentOpt.isPresent()) {
-			logger.error(" Failed >> unable to locate student id: " + student.getId());
+			logger.error(" Failed >> unable to locate student id: {}", student.getId());
 			return null;
 		}
 		
 		
 		StudentData studentData = existingStudentOpt.get();
+		// The edit was based on an older copy; a write between here and the save is caught by @Version.
+		if (version != null && studentData.getVersion() != version) {
+			throw new ObjectOptimisticLockingFailureException(StudentData.class, student.getId());
+		}
 		studentData.setFirstName(student.getFirstName());
 		studentData.setLastName(student.getLastName());
 		studentData.setStudentNumber(student.getStudentNumber());
@@ -67,35 +337,168 @@ public Student update(Student student) {
 		
 		
 		studentData = studentDataRepository.save(studentData);
-		logger.info(" update:Result " + studentData.toString());
+		payloadLogSampler.log("update", "saved", studentData);
 		
 		Student newStudent = transformerStudentService.transform(studentData);
+		studentSearchIndex.put(newStudent);
+		publish(StudentChange.Type.UPDATED, newStudent.getId(), newStudent);
 		return newStudent;
 	}
 	@Override
+	@Transactional
+	@CacheEvict(cacheNames = STUDENT_CACHE, key = "#id")
+public boolean patch(Integer id, StudentPatch patch) {
+		// One UPDATE naming only the changed columns. With a version it is a compare-and-set, so a
+		// stale edit changes nothing rather than overwriting a newer one.
+		StringBuilder jpql = new StringBuilder("update StudentData s set s.version = s.version + 1, s.lastUpdated = :lastUpdated");
+		for (String field : patch.getChanges().keySet()) {
+			jpql.append(", s.").append(field).append(" = :").append(field);
+		}
+		jpql.append(" where s.id = :id");
+		if (patch.getVersion() != null) {
+			jpql.append(" and s.version = :version");
+		}
+		Date now = new Date();
+		Query query = entityManager.createQuery(jpql.toString())
+				.setParameter("lastUpdated", now)
+				.setParameter("id", id);
+		patch.getChanges().forEach(query::setParameter);
+		if (patch.getVersion() != null) {
+			query.setParameter("version", patch.getVersion());
+		}
+		if (query.executeUpdate() == 0) {
+			if (patch.getVersion() != null && studentDataRepository.existsById(id)) {
+				throw new ObjectOptimisticLockingFailureException(StudentData.class, id);
+			}
+			logger.debug(" Failed >> unable to locate student id: {}", id);
+			return false;
+		}
+		payloadLogSampler.log("patch", "saved", patch.getChanges());
+		studentSearchIndex.update(id, student -> patch.applyTo(student, now));
+		publish(StudentChange.Type.UPDATED, id, null);
+		return true;
+	}
+	@Override
+public Student[] search(String query, Integer limit) {
+		if (!studentSearchIndex.isReady()) {
+			throw new IllegalStateException("Search index is still loading");
+		}
+		int max = limit == null ? defaultSearchLimit : Math.min(Math.max(limit, 1), maxSearchLimit);
+		return studentSearchIndex.search(query, max);
+	}
+	@Override
+	@Cacheable(cacheNames = STUDENT_CACHE, key = "#id", unless = "#result == null")
 public Student get(Integer id) {
-		logger.info(" Input id >> "+  Integer.toString(id) );
+		logger.debug(" Input id >> {}", id);
 		Optional<StudentData> optional = studentDataRepository.findById(id);
 		if(optional.isPresent()) {
-			logger.info(" Is present >> ");
 			StudentData studentDatum = optional.get();
 			Student student = transformerStudentService.transform(studentDatum);
 			return student;
 		}
-		logger.info(" Failed >> unable to locate id: " +  Integer.toString(id)  );
+		logger.debug(" Failed >> unable to locate id: {}", id);
 		return null;
 	}
 	@Override
+	@Transactional
+	@CacheEvict(cacheNames = STUDENT_CACHE, key = "#id")
 public void delete(Integer id) {
-		logger.info(" Input >> " +  Integer.toString(id));
+		logger.debug(" Input >> {}", id);
 		Optional<StudentData> optional = studentDataRepository.findById(id);
 		if( optional.isPresent()) {
 			StudentData studentDatum = optional.get();
 			studentDataRepository.delete(studentDatum);
-			logger.info(" Success >> " + studentDatum.toString());
+			studentTombstoneRepository.save(new StudentTombstone(id, new Date()));
+			studentSearchIndex.remove(id);
+			publish(StudentChange.Type.DELETED, id, null);
+			payloadLogSampler.log("delete", "deleted", studentDatum);
 		}
 		else {
-			logger.info(" Failed >> unable to locate student id:" +  Integer.toString(id));
+			logger.debug(" Failed >> unable to locate student id: {}", id);
+		}
+	}
+	// Bulk writes run as one statement each and touch rows the cache cannot name in advance, so
+	// they clear it; the search index applies the same change to its copies. The change feed gets a
+	// single RELOAD, as after a CSV import: an event per row would overflow the subscribers' queues
+	// and disconnect them all at once.
+	@Override
+	@Transactional
+	@CacheEvict(cacheNames = STUDENT_CACHE, allEntries = true)
+public int deleteAll(List<Integer> ids) {
+		List<Integer> distinct = bulkIds(ids);
+		if (distinct.isEmpty()) {
+			throw new IllegalArgumentException("ids are required");
+		}
+		entityManager.createQuery("insert into StudentTombstone (studentId, deleted)"
+						+ " select s.id, :deleted from StudentData s where s.id in :ids")
+				.setParameter("deleted", new Date())
+				.setParameter("ids", distinct)
+				.executeUpdate();
+		int deleted = entityManager.createQuery("delete from StudentData s where s.id in :ids")
+				.setParameter("ids", distinct)
+				.executeUpdate();
+		distinct.forEach(studentSearchIndex::remove);
+		if (deleted > 0) {
+			publish(StudentChange.Type.RELOAD, 0, null);
+		}
+		payloadLogSampler.log("delete", "deleted", distinct);
+		logger.debug(" deleteAll: {} of {} ids deleted", deleted, distinct.size());
+		return deleted;
+	}
+	@Override
+	@Transactional
+	@CacheEvict(cacheNames = STUDENT_CACHE, allEntries = true)
+public int reassignDepartment(StudentDepartmentChange change) {
+		if (change.getDepartment() == null || change.getDepartment().isBlank()) {
+			throw new IllegalArgumentException("department is required");
+		}
+		String from = change.getFromDepartment();
+		List<Integer> ids = bulkIds(change.getIds());
+		if (from == null && ids.isEmpty()) {
+			throw new IllegalArgumentException("fromDepartment or ids is required");
 		}
+		StringBuilder where = new StringBuilder(" where ");
+		if (from != null) {
+			where.append("s.department = :fromDepartment");
+		}
+		if (!ids.isEmpty()) {
+			where.append(from != null ? " or " : "").append("s.id in :ids");
+		}
+		Date now = new Date();
+		Query query = entityManager.createQuery("update StudentData s set s.department = :department,"
+						+ " s.version = s.version + 1, s.lastUpdated = :lastUpdated" + where)
+				.setParameter("department", change.getDepartment())
+				.setParameter("lastUpdated", now);
+		if (from != null) {
+			query.setParameter("fromDepartment", from);
+		}
+		if (!ids.isEmpty()) {
+			query.setParameter("ids", ids);
+		}
+		int updated = query.executeUpdate();
+		if (updated > 0) {
+			publish(StudentChange.Type.RELOAD, 0, null);
+		}
+		Set<Integer> idSet = new HashSet<>(ids);
+		studentSearchIndex.update(student -> from != null && from.equals(student.getDepartment()) || idSet.contains(student.getId()),
+				student -> StudentPatch.of(Map.of("department", change.getDepartment())).applyTo(student, now));
+		logger.debug(" reassignDepartment: {} students moved to {}", updated, change.getDepartment());
+		return updated;
+	}
+	List<Integer> bulkIds(List<Integer> ids) {
+		if (ids == null) {
+			return List.of();
+		}
+		List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+		distinct.remove(null);
+		if (distinct.size() > maxBulkIds) {
+			throw new IllegalArgumentException("At most " + maxBulkIds + " ids per request");
+		}
+		return distinct;
+	}
+	// Delivered to the change feed after the surrounding transaction commits, or straight away
+	// when the write already committed on its own.
+	void publish(StudentChange.Type type, int id, Student student) {
+		applicationEventPublisher.publishEvent(new StudentChange(type, id, student));
 	}
 }
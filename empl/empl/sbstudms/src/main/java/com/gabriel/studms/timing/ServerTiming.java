@@ -0,0 +1,56 @@
+package com.gabriel.studms.timing;
+import java.util.Locale;
+
+// Per-request timing breakdown, held in a ThreadLocal by ServerTimingFilter for the request thread.
+// Repository, transform and serialization time are added as they happen; header() renders them as a
+// Server-Timing value (https://www.w3.org/TR/server-timing/) with durations in milliseconds.
+public class ServerTiming {
+	public static final String HEADER = "Server-Timing";
+	private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+	final long start = System.nanoTime();
+	long dbNanos;
+	int dbCalls;
+	long transformNanos;
+	long serializationNanos;
+	boolean serializationMeasured;
+
+	public static ServerTiming current() {
+		return CURRENT.get();
+	}
+
+	static ServerTiming begin() {
+		ServerTiming timing = new ServerTiming();
+		CURRENT.set(timing);
+		return timing;
+	}
+
+	static void end() {
+		CURRENT.remove();
+	}
+
+	public void addDb(long nanos) {
+		dbNanos += nanos;
+		dbCalls++;
+	}
+
+	public void addTransform(long nanos) {
+		transformNanos += nanos;
+	}
+
+	public void addSerialization(long nanos) {
+		serializationNanos += nanos;
+		serializationMeasured = true;
+	}
+
+	// total is measured up to the moment the header is written, i.e. just before the first body byte.
+	// json is left out when the body was streamed (or there was none): a zero would read as "free".
+	String header() {
+		String json = serializationMeasured ? String.format(Locale.ROOT, " json;dur=%.3f,", millis(serializationNanos)) : "";
+		return String.format(Locale.ROOT, "db;dur=%.3f;desc=\"%d calls\", transform;dur=%.3f,%s total;dur=%.3f",
+				millis(dbNanos), dbCalls, millis(transformNanos), json, millis(System.nanoTime() - start));
+	}
+
+	static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
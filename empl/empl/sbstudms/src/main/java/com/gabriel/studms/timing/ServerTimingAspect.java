@@ -0,0 +1,27 @@
+package com.gabriel.studms.timing;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@ConditionalOnProperty(name = "student.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingAspect {
+
+	@Around("execution(* com.gabriel.studms.transform.TransformStudentService.*(..))")
+	public Object timeTransform(ProceedingJoinPoint joinPoint) throws Throwable {
+		ServerTiming timing = ServerTiming.current();
+		if (timing == null) {
+			return joinPoint.proceed();
+		}
+		long start = System.nanoTime();
+		try {
+			return joinPoint.proceed();
+		}
+		finally {
+			timing.addTransform(System.nanoTime() - start);
+		}
+	}
+}
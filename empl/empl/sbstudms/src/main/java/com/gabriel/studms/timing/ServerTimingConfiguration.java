@@ -0,0 +1,30 @@
+package com.gabriel.studms.timing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+// Server-Timing on every response, switched off with student.server-timing.enabled=false. Repository
+// time arrives through the listener RepositoryTimingPostProcessor attaches, transform time through
+// ServerTimingAspect and serialization time through the Jackson converter below.
+@Configuration
+@ConditionalOnProperty(name = "student.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfiguration {
+
+	@Bean
+	public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+		FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+		// Outermost, so total covers the other filters as well.
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+
+	// Replaces Boot's default Jackson converter, which backs off when one is defined.
+	@Bean
+	public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+		return new TimedJacksonHttpMessageConverter(objectMapper);
+	}
+}
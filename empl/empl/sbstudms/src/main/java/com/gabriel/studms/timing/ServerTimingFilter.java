@@ -0,0 +1,81 @@
+package com.gabriel.studms.timing;
+import org.springframework.web.filter.OncePerRequestFilter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+// Opens a ServerTiming for each request and writes the Server-Timing header at the last moment it
+// still can: when the body is first opened, on sendError, or after the chain for bodiless responses.
+// Streamed responses (the NDJSON export) open their body before the rows are read, so they only
+// report the time up to that point.
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		ServerTiming timing = ServerTiming.begin();
+		TimingResponse timingResponse = new TimingResponse(response, timing);
+		try {
+			chain.doFilter(request, timingResponse);
+		}
+		finally {
+			ServerTiming.end();
+			if (!response.isCommitted()) {
+				timingResponse.writeHeader();
+			}
+		}
+	}
+
+	static class TimingResponse extends HttpServletResponseWrapper {
+		final ServerTiming timing;
+		boolean written;
+
+		TimingResponse(HttpServletResponse response, ServerTiming timing) {
+			super(response);
+			this.timing = timing;
+		}
+
+		void writeHeader() {
+			if (!written) {
+				written = true;
+				setHeader(ServerTiming.HEADER, timing.header());
+				setHeader("Timing-Allow-Origin", "*");
+			}
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			writeHeader();
+			return super.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			writeHeader();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			writeHeader();
+			super.flushBuffer();
+		}
+
+		@Override
+		public void sendError(int status, String message) throws IOException {
+			writeHeader();
+			super.sendError(status, message);
+		}
+
+		@Override
+		public void sendError(int status) throws IOException {
+			writeHeader();
+			super.sendError(status);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.gabriel.studms.timing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+// Serializes small bodies into a buffer first, so the time Jackson takes is known before the response
+// body, and with it the Server-Timing header, is opened; the buffered length also becomes the
+// Content-Length. Arrays and collections (the student list) are streamed straight through, and any
+// other body that outgrows the buffer switches to streaming on the spot, so a large response is never
+// held in memory twice. Those report no json time.
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+	static final int MAX_BUFFERED = 8 * 1024;
+
+	public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+		super(objectMapper);
+	}
+
+	@Override
+	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+		ServerTiming timing = ServerTiming.current();
+		if (timing == null || object.getClass().isArray() || object instanceof Collection) {
+			super.writeInternal(object, type, outputMessage);
+			return;
+		}
+		long start = System.nanoTime();
+		SpillingOutputStream buffer = new SpillingOutputStream(outputMessage);
+		super.writeInternal(object, type, new HttpOutputMessage() {
+			@Override
+			public OutputStream getBody() {
+				return buffer;
+			}
+
+			@Override
+			public HttpHeaders getHeaders() {
+				return outputMessage.getHeaders();
+			}
+		});
+		if (buffer.spilled == null) {
+			timing.addSerialization(System.nanoTime() - start);
+			outputMessage.getHeaders().setContentLength(buffer.size());
+			buffer.writeTo(outputMessage.getBody());
+		}
+	}
+
+	// Buffers up to MAX_BUFFERED bytes, then hands what it has to the response body and writes through.
+	static class SpillingOutputStream extends OutputStream {
+		final HttpOutputMessage outputMessage;
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+		OutputStream spilled;
+
+		SpillingOutputStream(HttpOutputMessage outputMessage) {
+			this.outputMessage = outputMessage;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (spilled == null && buffer.size() + len > MAX_BUFFERED) {
+				spilled = outputMessage.getBody();
+				buffer.writeTo(spilled);
+				buffer.reset();
+			}
+			if (spilled != null) {
+				spilled.write(b, off, len);
+			}
+			else {
+				buffer.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (spilled != null) {
+				spilled.flush();
+			}
+		}
+
+		int size() {
+			return buffer.size();
+		}
+
+		void writeTo(OutputStream out) throws IOException {
+			buffer.writeTo(out);
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package com.gabriel.studms.changes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The SSE change feed over a real connection. Subscriber queues are tiny here, so a feed that sent
+// one event per row of a bulk write would disconnect the subscriber. Quick heartbeats let the feed
+// notice a closed stream before the next test, instead of in the middle of its requests.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"student.changes.subscriber-queue=4", "student.changes.heartbeat=100ms",
+				"spring.datasource.url=jdbc:h2:mem:changes_test;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("h2")
+class StudentChangeFeedTest {
+	@LocalServerPort
+	int port;
+	@Autowired
+	StudentChangeFeed studentChangeFeed;
+	final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	final List<EventStream> streams = new ArrayList<>();
+
+	@AfterEach
+	void closeStreams() throws Exception {
+		for (EventStream stream : streams) {
+			stream.close();
+		}
+		awaitSubscribers(0);
+	}
+
+	@Test
+	void liveChangesArrive() throws Exception {
+		EventStream stream = subscribe(null);
+		assertThat(stream.next().name).isEqualTo("open");
+		int id = create("Live", "CS");
+		Event created = stream.next();
+		assertThat(created.name).isEqualTo("created");
+		assertThat(created.data).contains("\"id\":" + id);
+	}
+
+	@Test
+	void bulkWritesSendOneReload() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			create("Bulk" + i, "Bulk");
+		}
+		EventStream stream = subscribe(null);
+		assertThat(stream.next().name).isEqualTo("open");
+
+		send("POST", "/api/student/reassign-department", "{\"fromDepartment\":\"Bulk\",\"department\":\"Moved\"}");
+		assertThat(stream.next().name).isEqualTo("reload");
+		send("DELETE", "/api/student?ids=" + create("Gone", "Moved"), null);
+		assertThat(stream.next().name).isEqualTo("created");
+		assertThat(stream.next().name).isEqualTo("reload");
+
+		// Still connected: the next change comes through on the same stream.
+		create("After", "CS");
+		assertThat(stream.next().name).isEqualTo("created");
+		// Nothing matched, so there is nothing to reload.
+		send("POST", "/api/student/reassign-department", "{\"fromDepartment\":\"Nowhere\",\"department\":\"Moved\"}");
+		create("Last", "CS");
+		assertThat(stream.next().name).isEqualTo("created");
+	}
+
+	@Test
+	void reconnectResumesFromLastEventId() throws Exception {
+		EventStream first = subscribe(null);
+		String token = first.next().id;
+		first.close();
+		awaitSubscribers(0);
+
+		int one = create("Missed1", "CS");
+		int two = create("Missed2", "CS");
+		EventStream resumed = subscribe(token);
+		assertThat(resumed.next().data).contains("\"id\":" + one);
+		assertThat(resumed.next().data).contains("\"id\":" + two);
+	}
+
+	@Test
+	void tokenFromAnotherRunReloads() throws Exception {
+		EventStream stream = subscribe("1-5");
+		assertThat(stream.next().name).isEqualTo("reload");
+	}
+
+	void awaitSubscribers(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (studentChangeFeed.subscriberCount() != count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertThat(studentChangeFeed.subscriberCount()).as("subscribers").isEqualTo(count);
+	}
+
+	int create(String name, String department) throws Exception {
+		String body = send("POST", "/api/student", "{\"firstName\":\"" + name + "\",\"lastName\":\"L\",\"studentNumber\":\"" + name
+				+ "\",\"department\":\"" + department + "\"}");
+		return Integer.parseInt(body.replaceAll(".*\"id\":(\\d+).*", "$1"));
+	}
+
+	String send(String method, String path, String json) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Content-Type", "application/json")
+				.method(method, json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json));
+		HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).as(method + " " + path).isEqualTo(200);
+		return response.body();
+	}
+
+	EventStream subscribe(String lastEventId) throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/api/student/changes/stream").openConnection();
+		connection.setRequestProperty("Accept", "text/event-stream");
+		if (lastEventId != null) {
+			connection.setRequestProperty("Last-Event-ID", lastEventId);
+		}
+		assertThat(connection.getResponseCode()).isEqualTo(200);
+		EventStream stream = new EventStream(connection.getInputStream());
+		streams.add(stream);
+		return stream;
+	}
+
+	static class Event {
+		String id;
+		String name;
+		String data;
+	}
+
+	// Parses the stream on its own thread; comment lines (heartbeats) are skipped.
+	static class EventStream implements AutoCloseable {
+		final InputStream body;
+		final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+		final Thread reader;
+
+		EventStream(InputStream body) {
+			this.body = body;
+			this.reader = new Thread(this::read, "sse-test-reader");
+			reader.setDaemon(true);
+			reader.start();
+		}
+
+		void read() {
+			try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+				Event event = new Event();
+				String line;
+				while ((line = lines.readLine()) != null) {
+					if (line.isEmpty()) {
+						if (event.name != null) {
+							events.add(event);
+						}
+						event = new Event();
+					}
+					else if (line.startsWith("id:")) {
+						event.id = line.substring(3);
+					}
+					else if (line.startsWith("event:")) {
+						event.name = line.substring(6);
+					}
+					else if (line.startsWith("data:")) {
+						event.data = line.substring(5);
+					}
+				}
+			}
+			catch (Exception ex) {
+				// Closed by the test.
+			}
+		}
+
+		Event next() throws InterruptedException {
+			Event event = events.poll(Duration.ofSeconds(10).toMillis(), TimeUnit.MILLISECONDS);
+			assertThat(event).as("next event").isNotNull();
+			return event;
+		}
+
+		@Override
+		public void close() throws Exception {
+			body.close();
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.gabriel.studms.controller;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// DELETE /api/student?ids= and POST /api/student/reassign-department, with the id cap lowered to 3.
+@SpringBootTest(properties = {"student.bulk.max-ids=3",
+		"spring.datasource.url=jdbc:h2:mem:bulk_test;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class StudentControllerBulkTest {
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void clear() {
+		jdbcTemplate.update("delete from stud_db");
+		jdbcTemplate.update("delete from stud_tombstone");
+	}
+
+	// Repeated ids count once and ids that do not exist count not at all.
+	@Test
+	void deleteAllReportsTheRowsDeleted() throws Exception {
+		int one = create("One", "CS");
+		int two = create("Two", "CS");
+		int kept = create("Kept", "CS");
+		deleteAll(one + "," + two + "," + one)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(2));
+		assertThat(jdbcTemplate.queryForList("select id from stud_db", Integer.class)).containsExactly(kept);
+		assertThat(jdbcTemplate.queryForList("select studentId from stud_tombstone", Integer.class)).containsExactlyInAnyOrder(one, two);
+
+		deleteAll(one + "," + two)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(0));
+	}
+
+	@Test
+	void deleteAllRejectsNoIdsAndTooMany() throws Exception {
+		int id = create("Stays", "CS");
+		deleteAll("").andExpect(status().isBadRequest());
+		deleteAll(id + ",1,2,3").andExpect(status().isBadRequest());
+		// The cap counts distinct ids.
+		deleteAll(id + "," + id + ",1,2").andExpect(status().isOk());
+		assertThat(jdbcTemplate.queryForObject("select count(*) from stud_db", Integer.class)).isZero();
+	}
+
+	// fromDepartment and ids are or-ed: everyone in the department moves, and so does every listed id.
+	@Test
+	void reassignMovesTheDepartmentOrTheListedIds() throws Exception {
+		int first = create("First", "Old");
+		int second = create("Second", "Old");
+		int listed = create("Listed", "Other");
+		int untouched = create("Untouched", "Other");
+		reassign("{\"fromDepartment\":\"Old\",\"ids\":[" + listed + "," + first + "],\"department\":\"New\"}")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(3));
+		assertThat(department(first)).isEqualTo("New");
+		assertThat(department(second)).isEqualTo("New");
+		assertThat(department(listed)).isEqualTo("New");
+		assertThat(department(untouched)).isEqualTo("Other");
+		// Each moved row is a new version, so stale If-Match and delta clients see the move.
+		assertThat(jdbcTemplate.queryForObject("select version from stud_db where id = ?", Integer.class, first)).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("select version from stud_db where id = ?", Integer.class, untouched)).isZero();
+
+		reassign("{\"ids\":[" + untouched + "],\"department\":\"Elsewhere\"}")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(1));
+		assertThat(department(untouched)).isEqualTo("Elsewhere");
+		reassign("{\"fromDepartment\":\"Old\",\"department\":\"New\"}")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(0));
+	}
+
+	@Test
+	void reassignRejectsMissingFieldsAndTooManyIds() throws Exception {
+		int id = create("Stays", "CS");
+		reassign("{\"fromDepartment\":\"CS\"}").andExpect(status().isBadRequest());
+		reassign("{\"fromDepartment\":\"CS\",\"department\":\" \"}").andExpect(status().isBadRequest());
+		reassign("{\"department\":\"New\"}").andExpect(status().isBadRequest());
+		reassign("{\"ids\":[],\"department\":\"New\"}").andExpect(status().isBadRequest());
+		reassign("{\"ids\":[" + id + ",1,2,3],\"department\":\"New\"}").andExpect(status().isBadRequest());
+		assertThat(department(id)).isEqualTo("CS");
+	}
+
+	int create(String name, String department) throws Exception {
+		String body = mockMvc.perform(post("/api/student").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"firstName\":\"" + name + "\",\"lastName\":\"L\",\"studentNumber\":\"" + name
+								+ "\",\"department\":\"" + department + "\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return Integer.parseInt(body.replaceAll(".*\"id\":(\\d+).*", "$1"));
+	}
+
+	ResultActions deleteAll(String ids) throws Exception {
+		return mockMvc.perform(delete("/api/student").param("ids", ids));
+	}
+
+	ResultActions reassign(String json) throws Exception {
+		return mockMvc.perform(post("/api/student/reassign-department").contentType(MediaType.APPLICATION_JSON).content(json));
+	}
+
+	String department(int id) {
+		return jdbcTemplate.queryForObject("select department from stud_db where id = ?", String.class, id);
+	}
+}
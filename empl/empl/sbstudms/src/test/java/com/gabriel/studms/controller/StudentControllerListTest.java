@@ -0,0 +1,77 @@
+package com.gabriel.studms.controller;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Conditional GETs of the student list and the headers a client's cache keeps from them.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:list_test;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class StudentControllerListTest {
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void createStudents() throws Exception {
+		jdbcTemplate.update("delete from stud_db");
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(post("/api/student").contentType(MediaType.APPLICATION_JSON)
+							.content("{\"firstName\":\"F" + i + "\",\"lastName\":\"L" + i + "\",\"studentNumber\":\"L" + i + "\"}"))
+					.andExpect(status().isOk());
+		}
+	}
+
+	// HTTP dates are whole seconds, so the delete comes more than a second after the rows were written.
+	@Test
+	void deleteMovesLastModified() throws Exception {
+		MvcResult first = mockMvc.perform(get("/api/student"))
+				.andExpect(status().isOk())
+				.andReturn();
+		String lastModified = first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+		mockMvc.perform(get("/api/student").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+				.andExpect(status().isNotModified());
+
+		Thread.sleep(1100);
+		Integer id = jdbcTemplate.queryForObject("select min(id) from stud_db", Integer.class);
+		mockMvc.perform(delete("/api/student/" + id)).andExpect(status().isOk());
+		mockMvc.perform(get("/api/student").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+				.andExpect(status().isOk());
+	}
+
+	// A cache revalidating the first page keeps the 304's headers, so the 304 needs a current token.
+	@Test
+	void notModifiedFirstPageCarriesDeltaToken() throws Exception {
+		MvcResult first = mockMvc.perform(get("/api/student?limit=2"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(StudentController.DELTA_TOKEN_HEADER))
+				.andReturn();
+		String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+		String token = first.getResponse().getHeader(StudentController.DELTA_TOKEN_HEADER);
+
+		Thread.sleep(5);
+		MvcResult revalidated = mockMvc.perform(get("/api/student?limit=2").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andReturn();
+		assertThat(revalidated.getResponse().getHeader(StudentController.DELTA_TOKEN_HEADER)).isNotNull().isNotEqualTo(token);
+
+		mockMvc.perform(get("/api/student?limit=2&after=" + first.getResponse().getHeader(StudentController.NEXT_CURSOR_HEADER)))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(StudentController.DELTA_TOKEN_HEADER));
+	}
+}
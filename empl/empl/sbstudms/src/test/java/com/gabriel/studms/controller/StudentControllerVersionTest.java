@@ -0,0 +1,136 @@
+package com.gabriel.studms.controller;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabriel.studms.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The version preconditions of PUT and PATCH: If-Match answers a stale version with 412, a body
+// "version" with 409, and a request naming neither (or If-Match: *) is applied as it is.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:version_test;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class StudentControllerVersionTest {
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	ObjectMapper objectMapper;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	int id;
+
+	@BeforeEach
+	void createStudent() throws Exception {
+		String body = mockMvc.perform(post("/api/student").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"studentNumber\":\"V1\",\"email\":\"ada@x\",\"department\":\"CS\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		id = objectMapper.readValue(body, Student.class).getId();
+	}
+
+	@Test
+	void putWithoutVersionAlwaysApplies() throws Exception {
+		for (String name : new String[] {"One", "Two", "Three"}) {
+			putStudent(null, "{\"firstName\":\"" + name + "\",\"lastName\":\"L\"}")
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.firstName").value(name));
+		}
+		putStudent("*", "{\"firstName\":\"Four\",\"version\":0}")
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, StudentController.etag(id, 4)));
+	}
+
+	@Test
+	void putWithStaleVersionIsRejected() throws Exception {
+		putStudent(null, "{\"firstName\":\"One\",\"version\":0}")
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, StudentController.etag(id, 1)));
+		putStudent(null, "{\"firstName\":\"Stale\",\"version\":0}")
+				.andExpect(status().isConflict());
+		putStudent(StudentController.etag(id, 0), "{\"firstName\":\"Stale\"}")
+				.andExpect(status().isPreconditionFailed());
+		putStudent("\"something-else\"", "{\"firstName\":\"Stale\"}")
+				.andExpect(status().isPreconditionFailed());
+		putStudent(StudentController.etag(id, 1), "{\"firstName\":\"Two\"}")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.firstName").value("Two"));
+	}
+
+	// sbstudms-reactive writes the same table; PUT has to compare against the row as it is now.
+	@Test
+	void putSeesVersionWrittenElsewhere() throws Exception {
+		mockMvc.perform(get("/api/student/" + id)).andExpect(status().isOk());
+		putStudent(null, "{\"firstName\":\"One\",\"version\":0}").andExpect(status().isOk());
+		jdbcTemplate.update("update stud_db set version = version + 1 where id = ?", id);
+
+		putStudent(null, "{\"firstName\":\"Two\",\"version\":2}")
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, StudentController.etag(id, 3)));
+	}
+
+	@Test
+	void patchChecksIfMatchAndBodyVersion() throws Exception {
+		patchStudent(StudentController.etag(id, 0), "{\"department\":\"Math\"}")
+				.andExpect(status().isNoContent())
+				.andExpect(header().string(HttpHeaders.ETAG, StudentController.etag(id, 1)));
+		patchStudent(StudentController.etag(id, 0), "{\"department\":\"Physics\"}")
+				.andExpect(status().isPreconditionFailed());
+		patchStudent(null, "{\"department\":\"Physics\",\"version\":0}")
+				.andExpect(status().isConflict());
+		patchStudent(null, "{\"lastName\":\"Byron\"}")
+				.andExpect(status().isNoContent());
+		patchStudent("*", "{\"unknown\":\"x\"}")
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/api/student/" + Integer.MAX_VALUE).contentType(MediaType.APPLICATION_JSON).content("{\"lastName\":\"X\"}"))
+				.andExpect(status().isNotFound());
+
+		mockMvc.perform(get("/api/student/" + id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.department").value("Math"))
+				.andExpect(jsonPath("$.lastName").value("Byron"))
+				.andExpect(jsonPath("$.version").value(2));
+	}
+
+	@Test
+	void getAnswersCurrentEtagWithNotModified() throws Exception {
+		String etag = mockMvc.perform(get("/api/student/" + id))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, StudentController.etag(id, 0)))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/api/student/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		patchStudent(etag, "{\"email\":\"ada@y\"}").andExpect(status().isNoContent());
+		mockMvc.perform(get("/api/student/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, StudentController.etag(id, 1)));
+	}
+
+	ResultActions putStudent(String ifMatch, String body) throws Exception {
+		return mockMvc.perform(withIfMatch(put("/api/student/" + id), ifMatch).contentType(MediaType.APPLICATION_JSON).content(body));
+	}
+
+	ResultActions patchStudent(String ifMatch, String body) throws Exception {
+		return mockMvc.perform(withIfMatch(patch("/api/student/" + id), ifMatch).contentType(MediaType.APPLICATION_JSON).content(body));
+	}
+
+	static MockHttpServletRequestBuilder withIfMatch(MockHttpServletRequestBuilder request, String ifMatch) {
+		return ifMatch == null ? request : request.header(HttpHeaders.IF_MATCH, ifMatch);
+	}
+}
@@ -0,0 +1,39 @@
+package com.gabriel.studms.metrics;
+import com.gabriel.studms.service.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics_test;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class StudentMetricsAspectTest {
+	@Autowired
+	StudentService studentService;
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Test
+	void successesShareOneTimerAndFailuresAreTaggedApart() throws Exception {
+		studentService.getListVersion();
+		Timer timer = timer("getListVersion", "none");
+		long count = timer.count();
+		studentService.getListVersion();
+		studentService.getListVersion();
+		assertThat(timer("getListVersion", "none")).isSameAs(timer);
+		assertThat(timer.count()).isEqualTo(count + 2);
+
+		assertThatThrownBy(() -> studentService.deleteAll(List.of())).isInstanceOf(IllegalArgumentException.class);
+		assertThat(timer("deleteAll", "IllegalArgumentException").count()).isEqualTo(1);
+		assertThat(meterRegistry.find(StudentMetricsAspect.SERVICE_TIMER).tags("method", "deleteAll", "exception", "none").timer()).isNull();
+	}
+
+	Timer timer(String method, String exception) {
+		return meterRegistry.get(StudentMetricsAspect.SERVICE_TIMER).tags("method", method, "exception", exception).timer();
+	}
+}
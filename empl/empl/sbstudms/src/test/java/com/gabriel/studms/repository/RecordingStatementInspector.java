@@ -0,0 +1,15 @@
+package com.gabriel.studms.repository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Keeps the SQL Hibernate sends, so a test can EXPLAIN exactly what a finder runs.
+public class RecordingStatementInspector implements StatementInspector {
+	static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		STATEMENTS.add(sql);
+		return sql;
+	}
+}
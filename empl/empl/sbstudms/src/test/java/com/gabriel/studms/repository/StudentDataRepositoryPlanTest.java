@@ -0,0 +1,69 @@
+package com.gabriel.studms.repository;
+import com.gabriel.studms.entity.StudentData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The by-number, by-email and by-department finders must be served by their indexes. Each test runs
+// the finder, takes the SQL Hibernate sent for it and checks H2's plan names the index rather than
+// a table scan.
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:plan_test;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.gabriel.studms.repository.RecordingStatementInspector"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class StudentDataRepositoryPlanTest {
+	@Autowired
+	StudentDataRepository studentDataRepository;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seed() {
+		for (int i = 0; i < 20; i++) {
+			StudentData studentData = new StudentData();
+			studentData.setFirstName("First" + i);
+			studentData.setLastName("Last" + i);
+			studentData.setStudentNumber("N" + i);
+			studentData.setEmail("s" + i + "@x");
+			studentData.setDepartment(i % 2 == 0 ? "CS" : "EE");
+			studentDataRepository.save(studentData);
+		}
+		RecordingStatementInspector.STATEMENTS.clear();
+	}
+
+	@Test
+	void findByStudentNumberUsesIndex() {
+		studentDataRepository.findFirstByStudentNumberOrderByIdAsc("N3");
+		assertThat(plan(lastSelect(), "N3", 1)).contains("IDX_STUD_STUDENT_NUMBER").doesNotContain("tableScan");
+	}
+
+	@Test
+	void findByEmailUsesIndex() {
+		studentDataRepository.findFirstByEmailOrderByIdAsc("s3@x");
+		assertThat(plan(lastSelect(), "s3@x", 1)).contains("IDX_STUD_EMAIL").doesNotContain("tableScan");
+	}
+
+	@Test
+	void findByDepartmentUsesIndex() {
+		studentDataRepository.findByDepartmentAndIdGreaterThanOrderByIdAsc("CS", 0, PageRequest.of(0, 5));
+		assertThat(plan(lastSelect(), "CS", 0, 5)).contains("IDX_STUD_DEPARTMENT").doesNotContain("tableScan");
+	}
+
+	String lastSelect() {
+		return RecordingStatementInspector.STATEMENTS.stream()
+				.filter(sql -> sql.startsWith("select"))
+				.reduce((first, second) -> second)
+				.orElseThrow(() -> new AssertionError("No select was sent"));
+	}
+
+	String plan(String sql, Object... args) {
+		return jdbcTemplate.queryForObject("explain " + sql, String.class, args);
+	}
+}
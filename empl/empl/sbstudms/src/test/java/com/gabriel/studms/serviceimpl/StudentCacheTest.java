@@ -0,0 +1,102 @@
+package com.gabriel.studms.serviceimpl;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentDepartmentChange;
+import com.gabriel.studms.model.StudentPatch;
+import com.gabriel.studms.service.StudentService;
+import org.aopalliance.aop.Advice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The "students" cache behind GET /api/student/{id}: filled by get, emptied by every write, and only
+// once that write has committed.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cache_test;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class StudentCacheTest {
+	@Autowired
+	StudentService studentService;
+	@Autowired
+	CacheManager cacheManager;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	Cache cache;
+	int id;
+
+	@BeforeEach
+	void createStudent() throws Exception {
+		cache = cacheManager.getCache(StudentServiceImpl.STUDENT_CACHE);
+		cache.clear();
+		id = studentService.create(new Student(0, "Ada", "Lovelace", "C1", "ada@x", "CS", null, null, null)).getId();
+	}
+
+	@Test
+	void getIsServedFromTheCache() throws Exception {
+		studentService.get(id);
+		assertThat(cache.get(id)).isNotNull();
+		// Behind the cache's back: the cached copy is still what get returns.
+		jdbcTemplate.update("update stud_db set firstName = 'Changed' where id = ?", id);
+		assertThat(studentService.get(id).getFirstName()).isEqualTo("Ada");
+	}
+
+	@Test
+	void writesEvict() throws Exception {
+		studentService.get(id);
+		studentService.update(new Student(id, "Grace", "Hopper", "C1", "grace@x", "CS", null, null, null), null);
+		assertThat(cache.get(id)).isNull();
+		assertThat(studentService.get(id).getFirstName()).isEqualTo("Grace");
+
+		studentService.patch(id, StudentPatch.of(Map.of("lastName", "Murray")));
+		assertThat(cache.get(id)).isNull();
+		assertThat(studentService.get(id).getLastName()).isEqualTo("Murray");
+
+		StudentDepartmentChange change = new StudentDepartmentChange();
+		change.setDepartment("Math");
+		change.setIds(List.of(id));
+		studentService.reassignDepartment(change);
+		assertThat(cache.get(id)).isNull();
+		assertThat(studentService.get(id).getDepartment()).isEqualTo("Math");
+
+		studentService.delete(id);
+		assertThat(cache.get(id)).isNull();
+		assertThat(studentService.get(id)).isNull();
+	}
+
+	@Test
+	void bulkDeleteEvicts() throws Exception {
+		studentService.get(id);
+		studentService.deleteAll(List.of(id));
+		assertThat(cache.get(id)).isNull();
+		assertThat(studentService.get(id)).isNull();
+	}
+
+	// The cache advice wraps the transaction advice, so an eviction follows the commit.
+	@Test
+	void evictionRunsOutsideTheTransaction() {
+		List<Advice> advice = Arrays.stream(((Advised) studentService).getAdvisors()).map(Advisor::getAdvice).toList();
+		int cacheAdvice = indexOf(advice, CacheInterceptor.class);
+		int transactionAdvice = indexOf(advice, TransactionInterceptor.class);
+		assertThat(cacheAdvice).isNotNegative().isLessThan(transactionAdvice);
+	}
+
+	static int indexOf(List<Advice> advice, Class<?> type) {
+		for (int i = 0; i < advice.size(); i++) {
+			if (type.isInstance(advice.get(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
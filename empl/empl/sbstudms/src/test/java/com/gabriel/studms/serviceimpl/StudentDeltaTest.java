@@ -0,0 +1,89 @@
+package com.gabriel.studms.serviceimpl;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentDelta;
+import com.gabriel.studms.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A first sync of a roster larger than one page, with rows older than the tombstone retention, has to
+// run to the end; the retention only applies to where the client's sync started.
+@SpringBootTest(properties = {"student.delta.max-rows=2",
+		"spring.datasource.url=jdbc:h2:mem:delta_test;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("h2")
+class StudentDeltaTest {
+	@Autowired
+	StudentService studentService;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void clearStudents() {
+		jdbcTemplate.update("delete from stud_db");
+		jdbcTemplate.update("delete from stud_tombstone");
+	}
+
+	@Test
+	void multiPageSyncOfOldRowsCompletes() throws Exception {
+		List<Integer> ids = createBackdated("N");
+
+		List<Integer> synced = new ArrayList<>();
+		String token = null;
+		int pages = 0;
+		StudentDelta delta;
+		do {
+			delta = studentService.getDelta(token);
+			assertThat(delta).as("page %d of the first sync", pages + 1).isNotNull();
+			assertThat(delta.getDeleted()).isEmpty();
+			Arrays.stream(delta.getStudents()).forEach(student -> synced.add(student.getId()));
+			token = delta.getToken();
+			pages++;
+		}
+		while (delta.isMore());
+		assertThat(pages).isEqualTo(3);
+		assertThat(synced).containsExactlyElementsOf(ids);
+
+		// The caught-up token reports a later delete and no longer resends the old rows.
+		studentService.delete(ids.get(0));
+		StudentDelta next = studentService.getDelta(token);
+		assertThat(next.getStudents()).isEmpty();
+		assertThat(next.getDeleted()).containsExactly(ids.get(0));
+	}
+
+	// The first sync is in progress when a student it already sent is deleted; a later page has to say so.
+	@Test
+	void deleteDuringFirstSyncIsReported() throws Exception {
+		List<Integer> ids = createBackdated("D");
+		StudentDelta first = studentService.getDelta(null);
+		assertThat(first.getStudents()).extracting(Student::getId).contains(ids.get(0));
+		StudentDelta second = studentService.getDelta(first.getToken());
+		assertThat(second.isMore()).isTrue();
+
+		studentService.delete(ids.get(0));
+		StudentDelta third = studentService.getDelta(second.getToken());
+		assertThat(third.isMore()).isFalse();
+		assertThat(third.getDeleted()).contains(ids.get(0));
+	}
+
+	// Five students last written 40 days ago, older than the tombstone retention, one second apart.
+	List<Integer> createBackdated(String prefix) throws Exception {
+		List<Integer> ids = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			ids.add(studentService.create(new Student(0, "First" + i, "Last" + i, prefix + i, prefix + i + "@x", "CS", null, null, 0)).getId());
+		}
+		long old = System.currentTimeMillis() - Duration.ofDays(40).toMillis();
+		for (int i = 0; i < ids.size(); i++) {
+			jdbcTemplate.update("update stud_db set lastUpdated = ? where id = ?", new Timestamp(old + i * 1000L), ids.get(i));
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,50 @@
+package com.gabriel.studms.timing;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// json is reported only for bodies the converter buffered and timed; a streamed list reports none.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:timing_test;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ServerTimingTest {
+	@Autowired
+	MockMvc mockMvc;
+
+	@Test
+	void jsonIsReportedOnlyWhenMeasured() throws Exception {
+		String body = mockMvc.perform(post("/api/student").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"firstName\":\"F\",\"lastName\":\"L\",\"studentNumber\":\"T1\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String id = body.replaceAll(".*\"id\":(\\d+).*", "$1");
+
+		String single = serverTiming("/api/student/" + id);
+		assertThat(single).contains("json;dur=").contains("total;dur=");
+		String list = serverTiming("/api/student");
+		assertThat(list).doesNotContain("json").contains("transform;dur=").contains("total;dur=");
+	}
+
+	@Test
+	void headerWithoutSerialization() {
+		ServerTiming timing = new ServerTiming();
+		timing.addDb(2_000_000);
+		assertThat(timing.header()).matches("db;dur=2\\.000;desc=\"1 calls\", transform;dur=0\\.000, total;dur=[0-9.]+");
+		timing.addSerialization(0);
+		assertThat(timing.header()).contains(", json;dur=0.000, total;dur=");
+	}
+
+	String serverTiming(String path) throws Exception {
+		return mockMvc.perform(get(path))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(ServerTiming.HEADER);
+	}
+}
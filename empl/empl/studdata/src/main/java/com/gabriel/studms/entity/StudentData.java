@@ -1,6 +1,10 @@
 package com.gabriel.studms.entity;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
 import javax.persistence.*;
 import lombok.Data;
@@ -8,10 +12,29 @@ import java.util.Date;
 
 @Data
 @Entity
-@Table(name = "stud_db")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = StudentData.CACHE_REGION)
+@Table(name = "stud_db", indexes = {
+        @Index(name = "idx_stud_last_name", columnList = "lastName, id"),
+        @Index(name = "idx_stud_first_name", columnList = "firstName, id"),
+        @Index(name = "idx_stud_student_number", columnList = "studentNumber"),
+        @Index(name = "idx_stud_email", columnList = "email"),
+        @Index(name = "idx_stud_department", columnList = "department, id"),
+        @Index(name = "idx_stud_last_updated", columnList = "lastUpdated, id"),
+        @Index(name = "idx_stud_list_version", columnList = "version, lastUpdated")
+})
 public class StudentData {
+    // Second-level cache regions, sized and expired in ehcache.xml.
+    public static final String CACHE_REGION = "student";
+    public static final String QUERY_CACHE_REGION = "student-query";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @GenericGenerator(name = "student_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "hibernate_sequence"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private int id;
     private String firstName;
     private String lastName;
@@ -19,6 +42,11 @@ public class StudentData {
     private String email;
     private String department;
 
+    // Optimistic lock for PUT and PATCH. The column default lets ddl-auto add it to existing tables.
+    @Version
+    @Column(columnDefinition = "integer default 0 not null")
+    private int version;
+
     @UpdateTimestamp
     @Temporal(TemporalType.TIMESTAMP)
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+08:00")
@@ -0,0 +1,26 @@
+package com.gabriel.studms.entity;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import javax.persistence.*;
+import java.util.Date;
+
+// Left behind by every delete so delta sync can tell clients which students are gone. Ids are never
+// reused, so the student id is the key. Purged after student.delta.tombstone-retention.
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "stud_tombstone", indexes = {
+        @Index(name = "idx_stud_tombstone_deleted", columnList = "deleted")
+})
+public class StudentTombstone {
+    @Id
+    private int studentId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date deleted;
+
+    public StudentTombstone(int studentId, Date deleted) {
+        this.studentId = studentId;
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,45 @@
+package com.gabriel.studms.importer;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 style splitting of a single line: quoted fields may contain commas and doubled quotes,
+// but not line breaks.
+class CsvLineParser {
+	static List<String> parse(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"') {
+					if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+						field.append('"');
+						i++;
+					}
+					else {
+						quoted = false;
+					}
+				}
+				else {
+					field.append(c);
+				}
+			}
+			else if (c == '"') {
+				quoted = true;
+			}
+			else if (c == ',') {
+				fields.add(field.toString().trim());
+				field.setLength(0);
+			}
+			else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("Unterminated quoted field");
+		}
+		fields.add(field.toString().trim());
+		return fields;
+	}
+}
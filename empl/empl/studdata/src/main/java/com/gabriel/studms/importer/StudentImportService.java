@@ -0,0 +1,7 @@
+package com.gabriel.studms.importer;
+import com.gabriel.studms.model.StudentImportReport;
+import java.io.IOException;
+import java.nio.file.Path;
+public interface StudentImportService {
+	StudentImportReport importCsv(Path file) throws IOException, InterruptedException;
+}
@@ -0,0 +1,231 @@
+package com.gabriel.studms.importer;
+import com.gabriel.studms.entity.StudentData;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentImportReport;
+import com.gabriel.studms.repository.StudentDataRepository;
+import com.gabriel.studms.transform.TransformStudentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Three stage pipeline: the calling thread reads lines, a pool sized to the cores parses and
+// validates them, and a smaller pool writes batches over separate pooled connections. Every
+// stage hands off through a bounded queue, so a slow database throttles the reader instead of
+// letting parsed rows pile up on the heap.
+@Service
+public class StudentImportServiceImpl implements StudentImportService {
+	Logger logger = LoggerFactory.getLogger(StudentImportServiceImpl.class);
+	static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+	@Autowired
+	StudentDataRepository studentDataRepository;
+	@Autowired
+	TransformStudentService transformStudentService;
+	@Autowired
+	TransactionTemplate transactionTemplate;
+	@Value("${student.import.batch-size:500}")
+	int batchSize;
+	@Value("${student.import.parsers:0}")
+	int parserThreads;
+	@Value("${student.import.writers:4}")
+	int writerThreads;
+	@Value("${student.import.queue-capacity:8}")
+	int queueCapacity;
+	@Value("${student.import.max-reported-rejections:1000}")
+	int maxReportedRejections;
+
+	@Override
+	public StudentImportReport importCsv(Path file) throws IOException, InterruptedException {
+		logger.info(" importCsv:Input {}", file);
+		long start = System.nanoTime();
+		Progress progress = new Progress();
+		int parsers = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+		ThreadPoolExecutor parsePool = boundedPool(parsers, "student-import-parse");
+		ThreadPoolExecutor writePool = boundedPool(writerThreads, "student-import-write");
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String header = reader.readLine();
+			if (header == null) {
+				throw new IOException("Empty import file: " + file);
+			}
+			Map<String, Integer> columns = columns(header);
+			List<String> lines = new ArrayList<>(batchSize);
+			List<Long> lineNumbers = new ArrayList<>(batchSize);
+			long lineNumber = 1;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank()) {
+					continue;
+				}
+				lines.add(line);
+				lineNumbers.add(lineNumber);
+				if (lines.size() == batchSize) {
+					submitParse(parsePool, writePool, columns, lines, lineNumbers, progress);
+					lines = new ArrayList<>(batchSize);
+					lineNumbers = new ArrayList<>(batchSize);
+				}
+			}
+			if (!lines.isEmpty()) {
+				submitParse(parsePool, writePool, columns, lines, lineNumbers, progress);
+			}
+		}
+		finally {
+			// Parse tasks feed the write pool, so it can only be closed once they have all run.
+			parsePool.shutdown();
+			parsePool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			writePool.shutdown();
+			writePool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+
+		StudentImportReport report = new StudentImportReport();
+		report.setRowsRead(progress.read.get());
+		report.setImported(progress.imported.get());
+		report.setRejected(progress.rejected.get());
+		report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		report.setRowsPerSecond(report.getElapsedMillis() == 0 ? report.getImported()
+				: report.getImported() * 1000.0 / report.getElapsedMillis());
+		List<StudentImportReport.Rejection> rejections = new ArrayList<>(progress.rejections);
+		rejections.sort(Comparator.comparingLong(StudentImportReport.Rejection::getLine));
+		report.setRejections(rejections);
+		logger.info(" importCsv:Result imported {} rejected {} in {} ms", report.getImported(), report.getRejected(),
+				report.getElapsedMillis());
+		return report;
+	}
+
+	void submitParse(ExecutorService parsePool, ExecutorService writePool, Map<String, Integer> columns,
+			List<String> lines, List<Long> lineNumbers, Progress progress) {
+		parsePool.execute(() -> {
+			List<StudentData> batch = new ArrayList<>(lines.size());
+			List<Long> batchLines = new ArrayList<>(lines.size());
+			for (int i = 0; i < lines.size(); i++) {
+				progress.read.incrementAndGet();
+				try {
+					batch.add(parse(columns, lines.get(i)));
+					batchLines.add(lineNumbers.get(i));
+				}
+				catch (IllegalArgumentException ex) {
+					progress.reject(lineNumbers.get(i), ex.getMessage(), maxReportedRejections);
+				}
+			}
+			if (!batch.isEmpty()) {
+				writePool.execute(() -> write(batch, batchLines, progress));
+			}
+		});
+	}
+
+	StudentData parse(Map<String, Integer> columns, String line) {
+		List<String> fields = CsvLineParser.parse(line);
+		if (fields.size() != columns.size()) {
+			throw new IllegalArgumentException("Expected " + columns.size() + " fields but found " + fields.size());
+		}
+		Student student = new Student();
+		student.setFirstName(field(fields, columns, "firstname"));
+		student.setLastName(field(fields, columns, "lastname"));
+		student.setStudentNumber(field(fields, columns, "studentnumber"));
+		student.setEmail(field(fields, columns, "email"));
+		student.setDepartment(field(fields, columns, "department"));
+		if (student.getFirstName() == null || student.getLastName() == null || student.getStudentNumber() == null) {
+			throw new IllegalArgumentException("firstName, lastName and studentNumber are required");
+		}
+		if (student.getEmail() != null && !EMAIL.matcher(student.getEmail()).matches()) {
+			throw new IllegalArgumentException("Invalid email: " + student.getEmail());
+		}
+		return transformStudentService.transform(student);
+	}
+
+	void write(List<StudentData> batch, List<Long> lineNumbers, Progress progress) {
+		try {
+			transactionTemplate.executeWithoutResult(status -> studentDataRepository.saveAll(batch));
+			progress.imported.addAndGet(batch.size());
+		}
+		catch (RuntimeException ex) {
+			// The batch failed as a whole; replay it row by row so only the offending rows are rejected.
+			for (int i = 0; i < batch.size(); i++) {
+				StudentData studentData = copy(batch.get(i));
+				try {
+					transactionTemplate.executeWithoutResult(status -> studentDataRepository.save(studentData));
+					progress.imported.incrementAndGet();
+				}
+				catch (RuntimeException rowEx) {
+					progress.reject(lineNumbers.get(i), NestedExceptionUtils.getMostSpecificCause(rowEx).getMessage(), maxReportedRejections);
+				}
+			}
+		}
+	}
+
+	// The rolled back attempt already assigned ids to the batch entities, so retries start from fresh copies.
+	StudentData copy(StudentData source) {
+		StudentData studentData = new StudentData();
+		studentData.setFirstName(source.getFirstName());
+		studentData.setLastName(source.getLastName());
+		studentData.setStudentNumber(source.getStudentNumber());
+		studentData.setEmail(source.getEmail());
+		studentData.setDepartment(source.getDepartment());
+		return studentData;
+	}
+
+	static Map<String, Integer> columns(String header) {
+		Map<String, Integer> columns = new HashMap<>();
+		List<String> names = CsvLineParser.parse(header.startsWith("\uFEFF") ? header.substring(1) : header);
+		for (int i = 0; i < names.size(); i++) {
+			columns.put(names.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""), i);
+		}
+		for (String required : List.of("firstname", "lastname", "studentnumber")) {
+			if (!columns.containsKey(required)) {
+				throw new IllegalArgumentException("Missing column: " + required);
+			}
+		}
+		return columns;
+	}
+
+	static String field(List<String> fields, Map<String, Integer> columns, String name) {
+		Integer index = columns.get(name);
+		if (index == null) {
+			return null;
+		}
+		String value = fields.get(index);
+		return value.isEmpty() ? null : value;
+	}
+
+	// Fixed size pool whose submit blocks once its queue is full, which is what carries backpressure upstream.
+	ThreadPoolExecutor boundedPool(int threads, String name) {
+		AtomicInteger count = new AtomicInteger();
+		return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> new Thread(runnable, name + "-" + count.incrementAndGet()),
+				(runnable, executor) -> {
+					try {
+						executor.getQueue().put(runnable);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						throw new RejectedExecutionException(ex);
+					}
+				});
+	}
+
+	static class Progress {
+		final AtomicLong read = new AtomicLong();
+		final AtomicLong imported = new AtomicLong();
+		final AtomicLong rejected = new AtomicLong();
+		final Queue<StudentImportReport.Rejection> rejections = new ConcurrentLinkedQueue<>();
+
+		void reject(long line, String reason, int maxReported) {
+			if (rejected.incrementAndGet() <= maxReported) {
+				rejections.add(new StudentImportReport.Rejection(line, reason));
+			}
+		}
+	}
+}
@@ -1,9 +1,13 @@
 package com.gabriel.studms.model;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import java.util.Date;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class Student{
 	int id;
     private String firstName;
@@ -17,4 +21,7 @@ public class Student{
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+08:00")
     private Date lastUpdated;
+
+    // Null when a client did not send one; PUT then applies the body without a version check.
+    private Integer version;
 }
@@ -0,0 +1,12 @@
+package com.gabriel.studms.model;
+import lombok.Data;
+
+@Data
+public class StudentBatchItem {
+	public enum Status { CREATED, FAILED }
+
+	private int index;
+	private Status status;
+	private Student student;
+	private String error;
+}
@@ -0,0 +1,10 @@
+package com.gabriel.studms.model;
+import lombok.Data;
+
+@Data
+public class StudentBatchResult {
+	private int requested;
+	private int created;
+	private int failed;
+	private StudentBatchItem[] items;
+}
@@ -0,0 +1,11 @@
+package com.gabriel.studms.model;
+import lombok.Data;
+
+@Data
+public class StudentBulkResult {
+	private int affected;
+
+	public StudentBulkResult(int affected) {
+		this.affected = affected;
+	}
+}
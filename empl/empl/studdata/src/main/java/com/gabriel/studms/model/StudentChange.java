@@ -0,0 +1,23 @@
+package com.gabriel.studms.model;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of the change feed. student is the row as written when the writer had it in hand and
+// null otherwise (deletes, PATCH and bulk updates), in which case clients fetch it by id. RELOAD means
+// changes were made that the feed cannot describe one by one; clients reload the list.
+@Data
+@NoArgsConstructor
+public class StudentChange {
+	public enum Type { CREATED, UPDATED, DELETED, RELOAD }
+
+	private String token;
+	private Type type;
+	private int id;
+	private Student student;
+
+	public StudentChange(Type type, int id, Student student) {
+		this.type = type;
+		this.id = id;
+		this.student = student;
+	}
+}
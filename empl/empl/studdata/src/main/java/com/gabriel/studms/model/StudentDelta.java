@@ -0,0 +1,12 @@
+package com.gabriel.studms.model;
+import lombok.Data;
+
+// Students created or updated since the token, and the ids deleted since then. token is passed back
+// as since on the next call; with more set the next call continues this sync rather than a new one.
+@Data
+public class StudentDelta {
+	private Student[] students;
+	private Integer[] deleted;
+	private String token;
+	private boolean more;
+}
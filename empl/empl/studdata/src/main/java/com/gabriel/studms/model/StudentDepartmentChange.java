@@ -0,0 +1,11 @@
+package com.gabriel.studms.model;
+import lombok.Data;
+import java.util.List;
+
+// Moves every student currently in fromDepartment, and every student in ids, to department.
+@Data
+public class StudentDepartmentChange {
+	private String department;
+	private String fromDepartment;
+	private List<Integer> ids;
+}
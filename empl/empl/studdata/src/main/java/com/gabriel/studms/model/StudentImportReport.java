@@ -0,0 +1,19 @@
+package com.gabriel.studms.model;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class StudentImportReport {
+	private long rowsRead;
+	private long imported;
+	private long rejected;
+	private long elapsedMillis;
+	private double rowsPerSecond;
+	private List<Rejection> rejections;
+
+	@Data
+	public static class Rejection {
+		private final long line;
+		private final String reason;
+	}
+}
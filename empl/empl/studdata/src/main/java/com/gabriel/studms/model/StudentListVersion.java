@@ -0,0 +1,28 @@
+package com.gabriel.studms.model;
+import lombok.Data;
+import java.util.Date;
+
+@Data
+public class StudentListVersion {
+	private long count;
+	private Date lastModified;
+	// lastUpdated is only as fine as the column (whole seconds on MySQL datetime), so these carry the
+	// writes it can miss: every update bumps a version and every insert takes a higher id.
+	private int maxId;
+	private long versionSum;
+
+	public StudentListVersion(long count, Date lastModified, int maxId, long versionSum) {
+		this.count = count;
+		this.lastModified = lastModified;
+		this.maxId = maxId;
+		this.versionSum = versionSum;
+	}
+
+	// max(lastUpdated) stays where it was when a row is deleted; the newest tombstone moves it on, so a
+	// client revalidating with If-Modified-Since alone sees the delete too.
+	public void includeLastDeleted(Date lastDeleted) {
+		if (lastDeleted != null && (lastModified == null || lastDeleted.getTime() > lastModified.getTime())) {
+			lastModified = lastDeleted;
+		}
+	}
+}
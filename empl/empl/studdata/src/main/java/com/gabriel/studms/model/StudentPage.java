@@ -0,0 +1,9 @@
+package com.gabriel.studms.model;
+import lombok.Data;
+
+@Data
+public class StudentPage {
+	private Student[] students;
+	private String nextCursor;
+	private long totalCount;
+}
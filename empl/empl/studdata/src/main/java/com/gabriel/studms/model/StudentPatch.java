@@ -0,0 +1,68 @@
+package com.gabriel.studms.model;
+import lombok.Getter;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A JSON merge patch of a student: only the fields present change, and a null value clears one.
+// "version" may carry the version the edit was based on; "id" is ignored.
+@Getter
+public class StudentPatch {
+	public static final List<String> FIELDS = List.of("firstName", "lastName", "studentNumber", "email", "department");
+	private final Map<String, String> changes;
+	private final Integer version;
+
+	StudentPatch(Map<String, String> changes, Integer version) {
+		this.changes = changes;
+		this.version = version;
+	}
+
+	public static StudentPatch of(Map<String, Object> body) {
+		Map<String, String> changes = new LinkedHashMap<>();
+		Integer version = null;
+		for (Map.Entry<String, Object> entry : body.entrySet()) {
+			Object value = entry.getValue();
+			if ("version".equals(entry.getKey())) {
+				if (!(value instanceof Integer)) {
+					throw new IllegalArgumentException("version must be an integer");
+				}
+				version = (Integer) value;
+			}
+			else if (FIELDS.contains(entry.getKey())) {
+				if (value != null && !(value instanceof String)) {
+					throw new IllegalArgumentException(entry.getKey() + " must be a string");
+				}
+				changes.put(entry.getKey(), (String) value);
+			}
+			else if (!"id".equals(entry.getKey())) {
+				throw new IllegalArgumentException("Unsupported field: " + entry.getKey());
+			}
+		}
+		if (changes.isEmpty()) {
+			throw new IllegalArgumentException("Nothing to update");
+		}
+		return new StudentPatch(changes, version);
+	}
+
+	public StudentPatch withVersion(Integer version) {
+		return new StudentPatch(changes, version);
+	}
+
+	// A copy of student as the update leaves it: changes applied, lastUpdated set and the version bumped.
+	public Student applyTo(Student student, Date lastUpdated) {
+		Student patched = new Student(student.getId(), student.getFirstName(), student.getLastName(), student.getStudentNumber(),
+				student.getEmail(), student.getDepartment(), student.getCreated(), lastUpdated,
+				student.getVersion() == null ? null : student.getVersion() + 1);
+		changes.forEach((field, value) -> {
+			switch (field) {
+				case "firstName": patched.setFirstName(value); break;
+				case "lastName": patched.setLastName(value); break;
+				case "studentNumber": patched.setStudentNumber(value); break;
+				case "email": patched.setEmail(value); break;
+				default: patched.setDepartment(value);
+			}
+		});
+		return patched;
+	}
+}
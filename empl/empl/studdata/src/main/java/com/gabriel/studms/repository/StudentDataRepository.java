@@ -1,4 +1,55 @@
 package com.gabriel.studms.repository;
 import com.gabriel.studms.entity.StudentData;
+import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentListVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
-public interface StudentDataRepository extends CrudRepository<StudentData,Integer> {}
\ No newline at end of file
+import javax.persistence.QueryHint;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+public interface StudentDataRepository extends CrudRepository<StudentData,Integer>, StudentDataRepositoryCustom {
+	// Constructor projection: rows map straight into Student DTOs, with no managed entities,
+	// persistence context entries or dirty-checking snapshots along the way.
+	@Query("select new com.gabriel.studms.model.Student(s.id, s.firstName, s.lastName, s.studentNumber, s.email, s.department, s.created, s.lastUpdated, s.version)"
+			+ " from StudentData s order by s.id")
+	List<Student> findAllStudents();
+	// Keyset over (lastUpdated, id), served by idx_stud_last_updated.
+	@Query("select new com.gabriel.studms.model.Student(s.id, s.firstName, s.lastName, s.studentNumber, s.email, s.department, s.created, s.lastUpdated, s.version)"
+			+ " from StudentData s where s.lastUpdated > :since or (s.lastUpdated = :since and s.id > :afterId) order by s.lastUpdated, s.id")
+	List<Student> findChangedSince(Date since, int afterId, Pageable pageable);
+	// A full scan would push every row through the entity cache and evict the hot ones, so it bypasses it.
+	@QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READONLY, value = "true"),
+			@QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+	@Query("select s from StudentData s order by s.id")
+	Stream<StudentData> streamAll();
+	// Versions the list ETag, so it is never cached: writes from other services (sbstudms-reactive)
+	// do not reach Hibernate's update timestamps and would leave clients on 304s for a stale list.
+	// Every column it reads is in idx_stud_list_version, so it is an index-only read, but still one
+	// over every row: each list request, 304s included, costs a scan of that index. That is a few
+	// milliseconds at tens of thousands of students; well beyond that, a version row maintained by
+	// the writes would be the cheaper source.
+	@Query("select new com.gabriel.studms.model.StudentListVersion(count(s), max(s.lastUpdated),"
+			+ " coalesce(max(s.id), 0), coalesce(sum(s.version), 0)) from StudentData s")
+	StudentListVersion findListVersion();
+	// The finders below keep their results in the query cache; any write to stud_db invalidates them
+	// through Hibernate's update timestamps, so they only pay off while reads outnumber writes.
+	// studentNumber and email are not unique; of several matches the lowest id is returned, which the
+	// index can still serve since its entries end with the primary key.
+	@QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = StudentData.QUERY_CACHE_REGION)})
+	Optional<StudentData> findFirstByStudentNumberOrderByIdAsc(String studentNumber);
+	@QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = StudentData.QUERY_CACHE_REGION)})
+	Optional<StudentData> findFirstByEmailOrderByIdAsc(String email);
+	@QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = StudentData.QUERY_CACHE_REGION)})
+	List<StudentData> findByDepartmentAndIdGreaterThanOrderByIdAsc(String department, int afterId, Pageable pageable);
+	@QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = StudentData.QUERY_CACHE_REGION)})
+	long countByDepartment(String department);
+}
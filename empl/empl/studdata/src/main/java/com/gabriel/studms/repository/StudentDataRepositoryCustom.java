@@ -0,0 +1,6 @@
+package com.gabriel.studms.repository;
+import com.gabriel.studms.model.Student;
+import java.util.List;
+public interface StudentDataRepositoryCustom {
+	List<Student> findPageAfter(String sortField, boolean descending, Object afterValue, Integer afterId, int limit);
+}
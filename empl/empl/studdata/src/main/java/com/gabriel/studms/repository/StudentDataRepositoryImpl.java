@@ -0,0 +1,52 @@
+package com.gabriel.studms.repository;
+import com.gabriel.studms.entity.StudentData;
+import com.gabriel.studms.model.Student;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.util.List;
+
+public class StudentDataRepositoryImpl implements StudentDataRepositoryCustom {
+	@PersistenceContext
+	EntityManager entityManager;
+
+	// Keyset page over (sortField, id). NULL sort values order first ascending and last descending,
+	// which is how MySQL sorts them, so the cursor predicate has to account for them explicitly.
+	@Override
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public List<Student> findPageAfter(String sortField, boolean descending, Object afterValue, Integer afterId, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Student> query = cb.createQuery(Student.class);
+		Root<StudentData> root = query.from(StudentData.class);
+		query.select(cb.construct(Student.class, root.get("id"), root.get("firstName"), root.get("lastName"),
+				root.get("studentNumber"), root.get("email"), root.get("department"), root.get("created"), root.get("lastUpdated"),
+				root.get("version")));
+		Path<Integer> id = root.get("id");
+		Path<Comparable> sort = root.get(sortField);
+
+		if (afterId != null) {
+			Predicate idAfter = descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId);
+			if ("id".equals(sortField)) {
+				query.where(idAfter);
+			}
+			else if (afterValue == null) {
+				Predicate sameNull = cb.and(cb.isNull(sort), idAfter);
+				query.where(descending ? sameNull : cb.or(sameNull, cb.isNotNull(sort)));
+			}
+			else {
+				Comparable value = (Comparable) afterValue;
+				Predicate sameValue = cb.and(cb.equal(sort, value), idAfter);
+				query.where(descending
+						? cb.or(cb.lessThan(sort, value), sameValue, cb.isNull(sort))
+						: cb.or(cb.greaterThan(sort, value), sameValue));
+			}
+		}
+		if ("id".equals(sortField)) {
+			query.orderBy(descending ? cb.desc(id) : cb.asc(id));
+		}
+		else {
+			query.orderBy(descending ? cb.desc(sort) : cb.asc(sort), descending ? cb.desc(id) : cb.asc(id));
+		}
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+}
@@ -0,0 +1,19 @@
+package com.gabriel.studms.repository;
+import com.gabriel.studms.entity.StudentTombstone;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Date;
+import java.util.List;
+public interface StudentTombstoneRepository extends CrudRepository<StudentTombstone, Integer> {
+	@Query("select t.studentId from StudentTombstone t where t.deleted >= :since order by t.studentId")
+	List<Integer> findDeletedIdsSince(Date since);
+	// One step down idx_stud_tombstone_deleted.
+	@Query("select max(t.deleted) from StudentTombstone t")
+	Date findLastDeleted();
+	@Transactional
+	@Modifying
+	@Query("delete from StudentTombstone t where t.deleted < :before")
+	int deleteOlderThan(Date before);
+}
@@ -1,9 +1,30 @@
 package com.gabriel.studms.service;
 import com.gabriel.studms.model.Student;
+import com.gabriel.studms.model.StudentBatchResult;
+import com.gabriel.studms.model.StudentDelta;
+import com.gabriel.studms.model.StudentDepartmentChange;
+import com.gabriel.studms.model.StudentListVersion;
+import com.gabriel.studms.model.StudentPage;
+import com.gabriel.studms.model.StudentPatch;
+import java.util.List;
+import java.util.function.Consumer;
 public interface StudentService {
 	Student[] getAll() throws Exception;
+	StudentListVersion getListVersion() throws Exception;
+	StudentPage getPage(String after, Integer limit, String sort) throws Exception;
+	StudentDelta getDelta(String since) throws Exception;
+	String getDeltaToken();
+	StudentPage getByDepartment(String department, String after, Integer limit) throws Exception;
+	Student getByStudentNumber(String studentNumber) throws Exception;
+	Student getByEmail(String email) throws Exception;
+	void exportAll(Consumer<Student> sink) throws Exception;
+	Student[] search(String query, Integer limit) throws Exception;
 	Student get(Integer id) throws Exception;
 	Student create(Student student) throws Exception;
-	Student update(Student student) throws Exception;
+	StudentBatchResult createAll(Student[] students) throws Exception;
+	Student update(Student student, Integer version) throws Exception;
+	boolean patch(Integer id, StudentPatch patch) throws Exception;
 	void delete(Integer id) throws Exception;
+	int deleteAll(List<Integer> ids) throws Exception;
+	int reassignDepartment(StudentDepartmentChange change) throws Exception;
 }
@@ -31,6 +31,7 @@ public class TransformStudentServiceImpl implements TransformStudentService {
         student.setDepartment(studentData.getDepartment());
         student.setCreated(studentData.getCreated());
         student.setLastUpdated(studentData.getLastUpdated());
+        student.setVersion(studentData.getVersion());
 		return student;
 	}
 }